@@ -0,0 +1,166 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offline benchmark data derived from {@code harem.xml} and {@code train.xml}, so no database is needed.
+ */
+final class Fixtures {
+
+    private static final Pattern SAMPLE_ENTITY = Pattern.compile("<START:([A-Z]+)>\\s*(.*?)\\s*<END>");
+    private static final Map<String, String> TAGS = new HashMap<>();
+
+    static {
+        TAGS.put(EntityTypes.PESSOA, "PER");
+        TAGS.put(EntityTypes.ORGANIZACAO, "ORG");
+        TAGS.put(EntityTypes.LOCAL, "LOC");
+        TAGS.put(EntityTypes.ABSTRACCAO, "MISC");
+    }
+
+    private static List<NameSample> harem;
+
+    private Fixtures() {
+    }
+
+    static synchronized List<NameSample> haremSamples() throws IOException {
+        if (harem == null) {
+            List<NameSample> samples = new ArrayList<>();
+            try (InputStream in = Fixtures.class.getResourceAsStream("/harem.xml")) {
+                ObjectStream<NameSample> stream = new NameSampleDataStream(new PlainTextByLineStream(in, StandardCharsets.UTF_8));
+                NameSample sample;
+                while ((sample = stream.read()) != null) {
+                    if (sample.getSentence().length > 0) {
+                        samples.add(sample);
+                    }
+                }
+            }
+            harem = Collections.unmodifiableList(samples);
+        }
+        return harem;
+    }
+
+    static List<NameSample> haremSamples(int limit) throws IOException {
+        List<NameSample> samples = haremSamples();
+        return samples.subList(0, Math.min(limit, samples.size()));
+    }
+
+    static ObjectStream<NameSample> stream(List<NameSample> samples) {
+        return new ObjectStream<NameSample>() {
+            private int next;
+
+            @Override
+            public NameSample read() {
+                return next < samples.size() ? samples.get(next++) : null;
+            }
+
+            @Override
+            public void reset() {
+                next = 0;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * The documents of {@code train.xml} turned back into the {@code <PER>...</PER>} markup of {@code ner_pt_manual}.
+     */
+    static List<String> goldenMarkup() throws IOException {
+        String train;
+        try (InputStream in = Fixtures.class.getResourceAsStream("/train.xml")) {
+            train = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> result = new ArrayList<>();
+        for (String document : train.split(TrainingCorpusStream.DOCSTART)) {
+            if (document.trim().isEmpty()) {
+                continue;
+            }
+            Matcher m = SAMPLE_ENTITY.matcher(document.trim());
+            StringBuffer golden = new StringBuffer();
+            while (m.find()) {
+                String tag = TAGS.getOrDefault(m.group(1), "MISC");
+                m.appendReplacement(golden, Matcher.quoteReplacement("<" + tag + ">" + m.group(2) + "</" + tag + ">"));
+            }
+            m.appendTail(golden);
+            result.add(golden.toString().replaceAll(" {2,}", " ").replace(" ,", ","));
+        }
+        return result;
+    }
+
+    /**
+     * {@code count} profiles of {@code sentences} HAREM sentences each, with the HAREM names as gold entities.
+     */
+    static List<Profile> syntheticProfiles(int count, int sentences) throws IOException {
+        List<NameSample> samples = haremSamples();
+        List<Profile> result = new ArrayList<>(count);
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            StringBuilder text = new StringBuilder();
+            Profile profile = new Profile(String.valueOf(i), null);
+            int offset = 0;
+            for (int j = 0; j < sentences; j++) {
+                NameSample sample = samples.get(next++ % samples.size());
+                text.append(String.join(" ", sample.getSentence())).append(' ');
+                for (Span name : sample.getNames()) {
+                    String value = String.join(" ", Arrays.copyOfRange(sample.getSentence(), name.getStart(), name.getEnd()));
+                    profile.goldenNERS.add(new NER(value, offset + name.getStart(), offset + name.getEnd(), name.getType()));
+                }
+                offset += sample.getSentence().length;
+            }
+            profile.data = text.toString();
+            result.add(profile);
+        }
+        return result;
+    }
+
+    /**
+     * Copies of {@code profiles} whose found entities are the gold ones with every third dropped and every
+     * fifth shifted by a token, so a scorer sees hits, misses and false positives.
+     */
+    static List<Profile> withFoundEntities(List<Profile> profiles) {
+        List<Profile> result = new ArrayList<>(profiles.size());
+        for (Profile golden : profiles) {
+            Profile found = new Profile(golden.id, golden.data);
+            int i = 0;
+            for (NER ner : golden.goldenNERS) {
+                if (i % 3 != 0) {
+                    int shift = i % 5 == 0 ? 1 : 0;
+                    found.foundNERS.add(new NER(ner.text, ner.start + shift, ner.end + shift, ner.type));
+                }
+                i++;
+            }
+            result.add(found);
+        }
+        return result;
+    }
+
+    static String plainText(String golden) {
+        return golden.replaceAll("<[^>]+>", "");
+    }
+
+    static List<Profile> copies(List<Profile> profiles) {
+        List<Profile> result = new ArrayList<>(profiles.size());
+        for (Profile profile : profiles) {
+            result.add(new Profile(profile.id, profile.data));
+        }
+        return result;
+    }
+}
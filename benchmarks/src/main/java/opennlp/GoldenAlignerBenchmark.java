@@ -0,0 +1,44 @@
+package opennlp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gold standard conversion ({@code convertGolden}) of the {@code train.xml} profiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GoldenAlignerBenchmark {
+
+    private GoldenAligner aligner;
+    private List<String> golden;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        aligner = new GoldenAligner();
+        golden = Fixtures.goldenMarkup();
+    }
+
+    @Benchmark
+    public GoldenAligner.Alignment align() {
+        next = (next + 1) % golden.size();
+        return aligner.align(golden.get(next));
+    }
+}
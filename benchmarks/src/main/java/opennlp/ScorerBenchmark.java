@@ -0,0 +1,50 @@
+package opennlp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code calculatePrecision} over synthetic profiles with a mix of hits, misses and false positives.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScorerBenchmark {
+
+    @Param({"100", "1000"})
+    public int profiles;
+
+    private List<Profile> golden;
+    private List<Profile> found;
+
+    @Setup
+    public void setUp() throws IOException {
+        golden = Fixtures.syntheticProfiles(profiles, 20);
+        found = Fixtures.withFoundEntities(golden);
+    }
+
+    @Benchmark
+    public Scorer calculatePrecision() {
+        Scorer scorer = new Scorer();
+        for (int i = 0; i < golden.size(); i++) {
+            scorer.score(found.get(i), golden.get(i));
+        }
+        return scorer;
+    }
+}
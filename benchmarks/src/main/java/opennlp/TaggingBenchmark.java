@@ -0,0 +1,83 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code identifyNERs} over synthetic profiles, sequentially and on the sharded engine. Only the engine
+ * takes a {@code parallelism}. Both copy the profiles inside the measured call, since tagging fills them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TaggingBenchmark {
+
+    @Param({"200"})
+    public int profiles;
+
+    private TokenNameFinderModel model;
+    private List<Profile> source;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        model = NameFinderME.train("pt-br", "train", Fixtures.stream(Fixtures.haremSamples(2000)), Collections.<String, Object>emptyMap());
+        source = Fixtures.syntheticProfiles(profiles, 10);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Engine {
+
+        @Param({"1", "4"})
+        public int parallelism;
+
+        private NerInferenceEngine engine;
+
+        @Setup(Level.Trial)
+        public void setUp(TaggingBenchmark benchmark) {
+            engine = new NerInferenceEngine(benchmark.model, parallelism, NerInferenceEngine.DEFAULT_SHARD_SIZE);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            engine.close();
+        }
+    }
+
+    @Benchmark
+    public List<Profile> sequential() {
+        List<Profile> batch = Fixtures.copies(source);
+        NameFinderME finder = new NameFinderME(model);
+        for (Profile profile : batch) {
+            NerInferenceEngine.tag(profile, finder, TokenizerService.get());
+        }
+        return batch;
+    }
+
+    @Benchmark
+    public List<Profile> engine(Engine engine) {
+        List<Profile> batch = Fixtures.copies(source);
+        engine.engine.identify(batch);
+        return batch;
+    }
+}
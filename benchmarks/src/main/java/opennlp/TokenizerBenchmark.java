@@ -0,0 +1,50 @@
+package opennlp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizerBenchmark {
+
+    private TokenizerService tokenizer;
+    private List<String> profiles;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        tokenizer = TokenizerService.get();
+        profiles = new ArrayList<>();
+        for (String golden : Fixtures.goldenMarkup()) {
+            profiles.add(Fixtures.plainText(golden));
+        }
+    }
+
+    @Benchmark
+    public String[] tokenize() {
+        next = (next + 1) % profiles.size();
+        return tokenizer.tokenize(profiles.get(next));
+    }
+
+    @Benchmark
+    public List<String[]> tokenizeBatch() {
+        return tokenizer.tokenize(profiles);
+    }
+}
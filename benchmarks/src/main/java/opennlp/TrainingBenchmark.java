@@ -0,0 +1,48 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code NameFinderME.train} on growing prefixes of the HAREM corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class TrainingBenchmark {
+
+    @Param({"500", "1000", "2000", "4000"})
+    public int sentences;
+
+    private List<NameSample> samples;
+
+    @Setup
+    public void setUp() throws IOException {
+        samples = Fixtures.haremSamples(sentences);
+    }
+
+    @Benchmark
+    public TokenNameFinderModel train() throws IOException {
+        return NameFinderME.train("pt-br", "train", Fixtures.stream(samples), Collections.<String, Object>emptyMap());
+    }
+}
@@ -0,0 +1,339 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A name sample corpus parsed once and kept in a compact binary file: an interned token dictionary,
+ * int token ids per sentence and (start, end, type id) span triples. The file is memory-mapped, so
+ * every curriculum step and every later run reads the samples straight from the page cache instead
+ * of re-parsing the text corpus. Only the dictionary is decoded onto the heap. The file is mapped in
+ * segments of {@link #SEGMENT_BITS 1 GB}, since a single mapping cannot exceed 2 GB.
+ *
+ * The binary file records the length and modification time of its source and the charset it was decoded
+ * with, and is rebuilt when any of them changes.
+ */
+public class CompiledCorpus {
+
+    private static final int MAGIC = 0x4e455243;
+    private static final int VERSION = 2;
+    static final int SEGMENT_BITS = 30;
+
+    private static final Map<File, CompiledCorpus> LOADED = new ConcurrentHashMap<>();
+
+    private final File file;
+    private final MappedByteBuffer[] segments;
+    private final int segmentBits;
+    private final long sourceLength;
+    private final long sourceModified;
+    private final String charset;
+    private final String[] tokens;
+    private final String[] types;
+    private final int sampleCount;
+    private final long samplesOffset;
+
+    private CompiledCorpus(File file, MappedByteBuffer[] segments, int segmentBits) {
+        this.file = file;
+        this.segments = segments;
+        this.segmentBits = segmentBits;
+        Cursor in = new Cursor(0);
+        in.getInt();
+        in.getInt();
+        this.sourceLength = in.getLong();
+        this.sourceModified = in.getLong();
+        this.charset = readString(in);
+        this.tokens = readStrings(in);
+        this.types = readStrings(in);
+        this.sampleCount = in.getInt();
+        this.samplesOffset = in.position;
+    }
+
+    /**
+     * Returns the compiled form of {@code source}, building the binary file in the system temp
+     * directory on first use. Repeated calls in the same JVM share one mapping.
+     */
+    public static CompiledCorpus load(File source, Charset charset) throws IOException {
+        return load(source, charset, new File(System.getProperty("java.io.tmpdir"), source.getName() + '.' + charset.name() + ".corpus"));
+    }
+
+    public static CompiledCorpus load(File source, Charset charset, File compiled) throws IOException {
+        File key = compiled.getCanonicalFile();
+        CompiledCorpus corpus = LOADED.get(key);
+        if (corpus != null && corpus.isCompiledFrom(source, charset)) {
+            return corpus;
+        }
+        synchronized (LOADED) {
+            corpus = LOADED.get(key);
+            if (corpus == null || !corpus.isCompiledFrom(source, charset)) {
+                if (!isCurrent(compiled, source, charset)) {
+                    compile(source, charset, compiled);
+                }
+                corpus = map(compiled);
+                LOADED.put(key, corpus);
+            }
+            return corpus;
+        }
+    }
+
+    public static void compile(File source, Charset charset, File compiled) throws IOException {
+        Map<String, Integer> tokenIds = new HashMap<>();
+        List<String> tokenList = new ArrayList<>();
+        Map<String, Integer> typeIds = new HashMap<>();
+        List<String> typeList = new ArrayList<>();
+
+        File samplesFile = File.createTempFile(compiled.getName(), ".samples", compiled.getAbsoluteFile().getParentFile());
+        int count = 0;
+        try {
+            try (DataOutputStream out = open(samplesFile)) {
+                ObjectStream<NameSample> samples = new NameSampleDataStream(new PlainTextByLineStream(new FileInputStream(source), charset));
+                try {
+                    NameSample sample;
+                    while ((sample = samples.read()) != null) {
+                        String[] sentence = sample.getSentence();
+                        out.writeBoolean(sample.isClearAdaptiveDataSet());
+                        out.writeInt(sentence.length);
+                        for (String token : sentence) {
+                            out.writeInt(intern(token, tokenIds, tokenList));
+                        }
+                        Span[] names = sample.getNames();
+                        out.writeInt(names.length);
+                        for (Span name : names) {
+                            out.writeInt(name.getStart());
+                            out.writeInt(name.getEnd());
+                            out.writeInt(name.getType() == null ? -1 : intern(name.getType(), typeIds, typeList));
+                        }
+                        count++;
+                    }
+                } finally {
+                    samples.close();
+                }
+            }
+
+            File tmp = File.createTempFile(compiled.getName(), ".tmp", compiled.getAbsoluteFile().getParentFile());
+            try {
+                try (DataOutputStream out = open(tmp)) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeLong(source.length());
+                    out.writeLong(source.lastModified());
+                    writeString(out, charset.name());
+                    writeStrings(out, tokenList);
+                    writeStrings(out, typeList);
+                    out.writeInt(count);
+                    Files.copy(samplesFile.toPath(), out);
+                }
+                Files.move(tmp.toPath(), compiled.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp.toPath());
+            }
+        } finally {
+            Files.deleteIfExists(samplesFile.toPath());
+        }
+    }
+
+    private static CompiledCorpus map(File compiled) throws IOException {
+        return map(compiled, SEGMENT_BITS);
+    }
+
+    /**
+     * Maps {@code compiled} in segments of {@code 1 << segmentBits} bytes.
+     */
+    static CompiledCorpus map(File compiled, int segmentBits) throws IOException {
+        try (FileChannel channel = FileChannel.open(compiled.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long segmentSize = 1L << segmentBits;
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + segmentSize - 1) >>> segmentBits)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << segmentBits;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentSize, size - start));
+            }
+            return new CompiledCorpus(compiled, segments, segmentBits);
+        }
+    }
+
+    private static boolean isCurrent(File compiled, File source, Charset charset) throws IOException {
+        if (!compiled.isFile() || compiled.length() < 28) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(compiled))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                    || in.readLong() != source.length() || in.readLong() != source.lastModified()) {
+                return false;
+            }
+            byte[] name = new byte[in.readInt()];
+            in.readFully(name);
+            return new String(name, StandardCharsets.UTF_8).equals(charset.name());
+        }
+    }
+
+    private boolean isCompiledFrom(File source, Charset charset) {
+        return sourceLength == source.length() && sourceModified == source.lastModified() && this.charset.equals(charset.name());
+    }
+
+    public int size() {
+        return sampleCount;
+    }
+
+    public int dictionarySize() {
+        return tokens.length;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Name of the charset the source was decoded with.
+     */
+    public String getCharset() {
+        return charset;
+    }
+
+    public ObjectStream<NameSample> stream() {
+        return new SampleStream();
+    }
+
+    public TrainingCorpusStream.Source asSource() {
+        return this::stream;
+    }
+
+    /**
+     * Reads the mapped segments from a position, also across segment boundaries. Only absolute gets are
+     * used on the shared buffers, so any number of cursors can read at once.
+     */
+    private class Cursor {
+        long position;
+
+        Cursor(long position) {
+            this.position = position;
+        }
+
+        byte get() {
+            MappedByteBuffer segment = segments[(int) (position >>> segmentBits)];
+            byte value = segment.get((int) (position & ((1L << segmentBits) - 1)));
+            position++;
+            return value;
+        }
+
+        int getInt() {
+            int offset = (int) (position & ((1L << segmentBits) - 1));
+            MappedByteBuffer segment = segments[(int) (position >>> segmentBits)];
+            if (offset + 4 <= segment.limit()) {
+                position += 4;
+                return segment.getInt(offset);
+            }
+            return (get() & 0xff) << 24 | (get() & 0xff) << 16 | (get() & 0xff) << 8 | get() & 0xff;
+        }
+
+        long getLong() {
+            return (long) getInt() << 32 | getInt() & 0xffffffffL;
+        }
+
+        void get(byte[] bytes) {
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = get();
+            }
+        }
+    }
+
+    private class SampleStream implements ObjectStream<NameSample> {
+        private final Cursor in = new Cursor(samplesOffset);
+        private int read;
+
+        @Override
+        public NameSample read() {
+            if (read == sampleCount) {
+                return null;
+            }
+            read++;
+            boolean clearAdaptiveData = in.get() != 0;
+            String[] sentence = new String[in.getInt()];
+            for (int i = 0; i < sentence.length; i++) {
+                sentence[i] = tokens[in.getInt()];
+            }
+            Span[] names = new Span[in.getInt()];
+            for (int i = 0; i < names.length; i++) {
+                int start = in.getInt();
+                int end = in.getInt();
+                int type = in.getInt();
+                names[i] = new Span(start, end, type < 0 ? null : types[type]);
+            }
+            return new NameSample(sentence, names, clearAdaptiveData);
+        }
+
+        @Override
+        public void reset() {
+            in.position = samplesOffset;
+            read = 0;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static int intern(String value, Map<String, Integer> ids, List<String> values) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = values.size();
+            ids.put(value, id);
+            values.add(value);
+        }
+        return id;
+    }
+
+    private static DataOutputStream open(File file) throws IOException {
+        OutputStream out = Files.newOutputStream(file.toPath());
+        return new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String[] readStrings(Cursor in) {
+        String[] values = new String[in.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(in);
+        }
+        return values;
+    }
+
+    private static String readString(Cursor in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
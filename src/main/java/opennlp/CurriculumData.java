@@ -0,0 +1,96 @@
+package opennlp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All rows of {@code lattes_ner}, read in one pass and split in memory into the search, test and
+ * train sets of each curriculum step. Gold annotations are converted once per row and reused by
+ * every step.
+ */
+public class CurriculumData {
+
+    public interface GoldenConverter {
+        List<NER> convert(String golden) throws IOException;
+    }
+
+    private final List<ProfileRecord> records;
+    private final GoldenConverter converter;
+    private final Map<String, List<NER>> goldens = new HashMap<>();
+
+    private CurriculumData(List<ProfileRecord> records, GoldenConverter converter) {
+        this.records = records;
+        this.converter = converter;
+    }
+
+    public static CurriculumData load(ProfileSource source, GoldenConverter converter) throws IOException {
+        List<ProfileRecord> records = new ArrayList<>();
+        source.read(records::add);
+        return new CurriculumData(records, converter);
+    }
+
+    public List<ProfileRecord> getRecords() {
+        return Collections.unmodifiableList(records);
+    }
+
+    /**
+     * Converts the gold annotations of every annotated row now instead of on first use, e.g. to time the
+     * conversion on its own. Returns the number of annotated rows.
+     */
+    public int convertGolden() throws IOException {
+        int rows = 0;
+        for (ProfileRecord record : records) {
+            if (record.passo != null) {
+                golden(record);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The profiles of step {@code passo}. Every profile whose step is not yet reached appears in the
+     * search set and, with its gold entities, in the test set as the same {@link Profile} instance;
+     * profiles of earlier steps form the train set. Each call returns fresh profiles, so steps can
+     * run independently.
+     */
+    public Split split(int passo) throws IOException {
+        Split split = new Split(passo);
+        for (ProfileRecord record : records) {
+            Profile profile = new Profile(record.id, record.data);
+            if (record.passo == null || record.passo >= passo) {
+                split.search.put(record.id, profile);
+            }
+            if (record.passo != null) {
+                profile.goldenNERS.addAll(golden(record));
+                (record.passo >= passo ? split.test : split.train).put(record.id, profile);
+            }
+        }
+        return split;
+    }
+
+    private synchronized List<NER> golden(ProfileRecord record) throws IOException {
+        List<NER> result = goldens.get(record.id);
+        if (result == null) {
+            result = converter.convert(record.golden);
+            goldens.put(record.id, result);
+        }
+        return result;
+    }
+
+    public static class Split {
+        public final int passo;
+        public final Map<String, Profile> search = new LinkedHashMap<>();
+        public final Map<String, Profile> test = new LinkedHashMap<>();
+        public final Map<String, Profile> train = new LinkedHashMap<>();
+
+        Split(int passo) {
+            this.passo = passo;
+        }
+    }
+}
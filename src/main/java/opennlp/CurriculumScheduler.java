@@ -0,0 +1,92 @@
+package opennlp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Runs independent curriculum steps as concurrent jobs. At most {@code parallelism} steps run at once,
+ * and a step only starts when its estimated heap use fits in what is left of the memory budget, so a
+ * sweep over many steps cannot run the JVM out of memory by starting them all together.
+ */
+public class CurriculumScheduler {
+
+    public interface StepJob {
+        StepResult run(int passo) throws Exception;
+    }
+
+    private final int parallelism;
+    private final int memoryBudgetMb;
+    private final IntToLongFunction memoryEstimateMb;
+
+    public CurriculumScheduler(int parallelism, int memoryBudgetMb, IntToLongFunction memoryEstimateMb) {
+        if (parallelism < 1 || memoryBudgetMb < 1) {
+            throw new IllegalArgumentException("parallelism and memoryBudgetMb must be positive");
+        }
+        this.parallelism = parallelism;
+        this.memoryBudgetMb = memoryBudgetMb;
+        this.memoryEstimateMb = memoryEstimateMb;
+    }
+
+    /**
+     * Parallelism from {@code ner.steps.parallelism} (default: available processors), budget from
+     * {@code ner.steps.memoryMb} (default: max heap) and a flat per-step estimate from
+     * {@code ner.steps.stepMemoryMb} (default: 512).
+     */
+    public static CurriculumScheduler fromSystemProperties() {
+        int budget = Integer.getInteger("ner.steps.memoryMb", (int) (Runtime.getRuntime().maxMemory() >> 20));
+        long perStep = Integer.getInteger("ner.steps.stepMemoryMb", 512);
+        return new CurriculumScheduler(Integer.getInteger("ner.steps.parallelism", Runtime.getRuntime().availableProcessors()),
+                budget, passo -> perStep);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs {@code job} for every step and returns the results ordered by step. A failing step is
+     * reported in its result and does not stop the others.
+     */
+    public List<StepResult> run(Collection<Integer> passos, StepJob job) throws InterruptedException {
+        Semaphore memory = new Semaphore(memoryBudgetMb, true);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, passos.size())));
+        try {
+            List<Future<StepResult>> futures = new ArrayList<>();
+            for (int passo : passos) {
+                int permits = (int) Math.max(1, Math.min(memoryBudgetMb, memoryEstimateMb.applyAsLong(passo)));
+                futures.add(executor.submit(() -> {
+                    memory.acquire(permits);
+                    try {
+                        return job.run(passo);
+                    } catch (Exception e) {
+                        StepResult failed = new StepResult(passo);
+                        failed.failure = e;
+                        return failed;
+                    } finally {
+                        memory.release(permits);
+                    }
+                }));
+            }
+            List<StepResult> results = new ArrayList<>();
+            for (Future<StepResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            results.sort(Comparator.comparingInt(result -> result.passo));
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
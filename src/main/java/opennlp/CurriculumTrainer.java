@@ -0,0 +1,206 @@
+package opennlp;
+
+import opennlp.model.AbstractModel;
+import opennlp.model.Event;
+import opennlp.model.EventStream;
+import opennlp.model.TrainUtil;
+import opennlp.tools.namefind.DefaultNameContextGenerator;
+import opennlp.tools.namefind.NameFinderEventStream;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.TrainingParameters;
+import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
+import opennlp.tools.util.model.ModelUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trains the name finder for successive curriculum steps without redoing the work of earlier steps.
+ *
+ * Every profile is its own document, so the training events (outcome plus feature context) of the base
+ * corpus and of each profile never change once generated. They are kept per document, with their
+ * feature strings interned, and step n only generates events for the profiles promoted since step n-1.
+ * The cached events are then indexed and trained with the same {@link TrainUtil} settings
+ * {@code NameFinderME.train} uses, so a step yields the same model as training from the text corpus.
+ */
+public class CurriculumTrainer {
+
+    private final String languageCode;
+    private final String type;
+    private final TrainingParameters parameters;
+    private final FeaturePipeline pipeline;
+    private final TrainingCorpusStream.Source base;
+
+    private final Map<String, String> features = new ConcurrentHashMap<>();
+    private final Map<String, DocumentEvents> profileEvents = new ConcurrentHashMap<>();
+    private final List<Step> steps = Collections.synchronizedList(new ArrayList<>());
+    private List<Event> baseEvents;
+
+    public CurriculumTrainer(TrainingCorpusStream.Source base) {
+        this("pt-br", "train", ModelUtil.createTrainingParameters(100, 5), base);
+    }
+
+    public CurriculumTrainer(String languageCode, String type, TrainingParameters parameters, TrainingCorpusStream.Source base) {
+        this(languageCode, type, parameters, FeaturePipeline.defaults(), base);
+    }
+
+    /**
+     * Models trained with a pipeline other than {@link FeaturePipeline#defaults()} must be tagged with
+     * the same pipeline.
+     */
+    public CurriculumTrainer(String languageCode, String type, TrainingParameters parameters, FeaturePipeline pipeline, TrainingCorpusStream.Source base) {
+        this.languageCode = languageCode;
+        this.type = type;
+        this.parameters = parameters;
+        this.pipeline = pipeline;
+        this.base = base;
+    }
+
+    /**
+     * The feature generator {@code NameFinderME} uses when none is given.
+     */
+    public static AdaptiveFeatureGenerator defaultFeatureGenerator() {
+        return FeaturePipeline.defaults().create();
+    }
+
+    public TokenNameFinderModel train(int passo, Collection<Profile> profiles) throws IOException {
+        long start = System.nanoTime();
+        List<List<Event>> documents = new ArrayList<>(profiles.size() + 1);
+        documents.add(getBaseEvents());
+        int generated = 0;
+        long eventCount = documents.get(0).size();
+        for (Profile profile : profiles) {
+            DocumentEvents cached = profileEvents.get(profile.id);
+            if (cached == null || !cached.data.equals(profile.data)) {
+                cached = new DocumentEvents(profile.data, generate(TrainingCorpusStream.fromProfiles(Collections.singletonList(profile))));
+                profileEvents.put(profile.id, cached);
+                generated++;
+            }
+            documents.add(cached.events);
+            eventCount += cached.events.size();
+        }
+        long indexed = System.nanoTime();
+
+        Map<String, String> manifestInfoEntries = new HashMap<>();
+        AbstractModel model = TrainUtil.train(new DocumentEventStream(documents), parameters.getSettings(), manifestInfoEntries);
+        TokenNameFinderModel result = new TokenNameFinderModel(languageCode, model, Collections.<String, Object>emptyMap(), manifestInfoEntries);
+
+        steps.add(new Step(passo, profiles.size(), generated, eventCount, indexed - start, System.nanoTime() - indexed));
+        return result;
+    }
+
+    /**
+     * Everything besides the training data that determines the trained model, for {@link ModelFingerprint}.
+     */
+    public Map<String, String> describe() {
+        Map<String, String> description = new HashMap<>(parameters.getSettings());
+        description.put("languageCode", languageCode);
+        description.put("type", type);
+        description.put("featureGenerator", pipeline.getName());
+        return description;
+    }
+
+    public FeaturePipeline getPipeline() {
+        return pipeline;
+    }
+
+    public List<Step> getSteps() {
+        synchronized (steps) {
+            return new ArrayList<>(steps);
+        }
+    }
+
+    private synchronized List<Event> getBaseEvents() throws IOException {
+        if (baseEvents == null) {
+            baseEvents = generate(base);
+        }
+        return baseEvents;
+    }
+
+    private List<Event> generate(TrainingCorpusStream.Source source) throws IOException {
+        ObjectStream<NameSample> samples = source.open();
+        try {
+            EventStream events = new NameFinderEventStream(samples, type, new DefaultNameContextGenerator(pipeline.create()));
+            List<Event> result = new ArrayList<>();
+            while (events.hasNext()) {
+                Event event = events.next();
+                String[] context = event.getContext();
+                for (int i = 0; i < context.length; i++) {
+                    String feature = features.putIfAbsent(context[i], context[i]);
+                    if (feature != null) {
+                        context[i] = feature;
+                    }
+                }
+                result.add(event);
+            }
+            return result;
+        } finally {
+            samples.close();
+        }
+    }
+
+    public static class Step {
+        public final int passo;
+        public final int profiles;
+        public final int newProfiles;
+        public final long events;
+        public final long eventNanos;
+        public final long trainNanos;
+
+        Step(int passo, int profiles, int newProfiles, long events, long eventNanos, long trainNanos) {
+            this.passo = passo;
+            this.profiles = profiles;
+            this.newProfiles = newProfiles;
+            this.events = events;
+            this.eventNanos = eventNanos;
+            this.trainNanos = trainNanos;
+        }
+
+        public String toString() {
+            return String.format("Passo %d: %d perfis (%d novos), %d eventos, eventos em %.1f ms, treino em %.1f ms",
+                    passo, profiles, newProfiles, events, eventNanos / 1e6, trainNanos / 1e6);
+        }
+    }
+
+    private static class DocumentEvents {
+        final String data;
+        final List<Event> events;
+
+        DocumentEvents(String data, List<Event> events) {
+            this.data = data;
+            this.events = events;
+        }
+    }
+
+    private static class DocumentEventStream implements EventStream {
+        private final Iterator<List<Event>> documents;
+        private Iterator<Event> current = Collections.emptyIterator();
+
+        DocumentEventStream(List<List<Event>> documents) {
+            this.documents = documents.iterator();
+        }
+
+        @Override
+        public Event next() {
+            hasNext();
+            return current.next();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && documents.hasNext()) {
+                current = documents.next().iterator();
+            }
+            return current.hasNext();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package opennlp;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable set of entities stored as a sorted array of packed keys: 28 bits of start token,
+ * 28 bits of end token and 8 bits of {@link EntityTypes type id}. Sorting the keys orders entities
+ * by position, so two sets can be compared with a single merge.
+ */
+public class EntitySet {
+
+    private static final int TYPE_BITS = 8;
+    private static final int END_BITS = 28;
+    private static final long TOKEN_MASK = (1L << END_BITS) - 1;
+
+    public static final EntitySet EMPTY = new EntitySet(new long[0]);
+
+    private final long[] keys;
+
+    private EntitySet(long[] keys) {
+        this.keys = keys;
+    }
+
+    public static long key(int start, int end, int type) {
+        if (start < 0 || end < start || end > TOKEN_MASK) {
+            throw new IllegalArgumentException("Invalid entity span [" + start + ".." + end + ")");
+        }
+        return (long) start << (END_BITS + TYPE_BITS) | (long) end << TYPE_BITS | type;
+    }
+
+    public static int start(long key) {
+        return (int) (key >>> (END_BITS + TYPE_BITS));
+    }
+
+    public static int end(long key) {
+        return (int) ((key >>> TYPE_BITS) & TOKEN_MASK);
+    }
+
+    public static int type(long key) {
+        return (int) (key & ((1 << TYPE_BITS) - 1));
+    }
+
+    public static EntitySet of(Collection<NER> entities) {
+        long[] keys = new long[entities.size()];
+        int i = 0;
+        for (NER ner : entities) {
+            keys[i++] = ner.key();
+        }
+        return of(keys, keys.length);
+    }
+
+    /**
+     * Takes ownership of the first {@code length} keys, sorting and de-duplicating them in place.
+     */
+    public static EntitySet of(long[] keys, int length) {
+        Arrays.sort(keys, 0, length);
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            if (size == 0 || keys[size - 1] != keys[i]) {
+                keys[size++] = keys[i];
+            }
+        }
+        return new EntitySet(size == keys.length ? keys : Arrays.copyOf(keys, size));
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public long get(int index) {
+        return keys[index];
+    }
+
+    long[] keys() {
+        return keys;
+    }
+
+    public boolean contains(long key) {
+        return Arrays.binarySearch(keys, key) >= 0;
+    }
+}
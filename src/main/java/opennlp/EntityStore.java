@@ -0,0 +1,308 @@
+package opennlp;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Found entities on disk, one {@code <model version>.tsv} file per model. Each profile is stored with the
+ * hash of the text it was tagged from, so a profile can be served from the store as long as neither its
+ * text nor the model changed. A profile line {@code id, hash, count} is followed by {@code count} entity
+ * lines {@code start, end, type, text}, all tab separated and escaped like {@link FileProfileSource}. Entities
+ * found by the {@link Gazetteer} carry a fifth field, {@code gazetteer}.
+ *
+ * The file is an append-only log: saving appends only the profiles put since the last save, and a later
+ * record of a profile replaces the earlier ones on load. Once superseded records outnumber the live ones,
+ * the next save compacts the file by rewriting it. A record cut short by a crash is dropped on load.
+ *
+ * Like {@link ModelCache}, loading or saving a version touches its file, and the least recently used
+ * versions are deleted once the store holds more than {@code maxEntries} files or {@code maxBytes} bytes.
+ * Versions in use, see {@link #pin}, are never deleted.
+ */
+public class EntityStore {
+
+    private static final String SUFFIX = ".tsv";
+    private static final String GAZETTEER = "gazetteer";
+
+    private final File directory;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pins = new HashMap<>();
+
+    public EntityStore(File directory, int maxEntries, long maxBytes) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("maxEntries and maxBytes must be positive");
+        }
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Directory from {@code ner.entities.store} (default: {@code ner-entities} in the temp directory), size
+     * limits from {@code ner.entities.maxEntries} (default: 16) and {@code ner.entities.maxMb} (default: 512).
+     */
+    public static EntityStore fromSystemProperties() {
+        File directory = new File(System.getProperty("ner.entities.store", new File(System.getProperty("java.io.tmpdir"), "ner-entities").getPath()));
+        return new EntityStore(directory, Integer.getInteger("ner.entities.maxEntries", 16), Long.getLong("ner.entities.maxMb", 512) << 20);
+    }
+
+    /**
+     * Hash of a profile's text, stored next to its entities.
+     */
+    public static String hash(String data) {
+        return new ModelFingerprint().add("data", data).build();
+    }
+
+    /**
+     * Keeps {@code modelVersion} from being evicted until {@link #unpin} is called as often as this.
+     */
+    public void pin(String modelVersion) {
+        synchronized (versions) {
+            pins.merge(modelVersion, 1, Integer::sum);
+        }
+    }
+
+    public void unpin(String modelVersion) {
+        synchronized (versions) {
+            pins.computeIfPresent(modelVersion, (version, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    public Entry get(String modelVersion, String id) throws IOException {
+        return entries(modelVersion).get(id);
+    }
+
+    public void put(String modelVersion, String id, String hash, Collection<NER> entities) throws IOException {
+        put(modelVersion, id, hash, entities, Collections.<NER>emptySet());
+    }
+
+    /**
+     * {@code gazetteerEntities} are the ones of {@code entities} that the {@link Gazetteer} found.
+     */
+    public void put(String modelVersion, String id, String hash, Collection<NER> entities, Collection<NER> gazetteerEntities) throws IOException {
+        entries(modelVersion).put(id, new Entry(hash, new ArrayList<>(entities), new HashSet<>(gazetteerEntities)));
+    }
+
+    public int size(String modelVersion) throws IOException {
+        return entries(modelVersion).size();
+    }
+
+    /**
+     * Appends the profiles put since the last save to the file of {@code modelVersion}, or compacts the file
+     * by writing every profile to a temporary file and moving it into place atomically.
+     */
+    public void save(String modelVersion) throws IOException {
+        Version version = entries(modelVersion);
+        Files.createDirectories(directory.toPath());
+        File file = file(modelVersion);
+        synchronized (version) {
+            if (version.compact || version.records > 2 * version.entries.size() || !file.isFile()) {
+                File tmp = File.createTempFile("entities-" + modelVersion, ".tmp", directory);
+                try {
+                    try (Writer out = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+                        write(out, version.entries.keySet(), version.entries);
+                    }
+                    Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(tmp.toPath());
+                }
+                version.records = version.entries.size();
+                version.compact = false;
+            } else if (!version.dirty.isEmpty()) {
+                try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.APPEND)) {
+                    write(out, version.dirty, version.entries);
+                }
+                version.records += version.dirty.size();
+            }
+            version.dirty.clear();
+        }
+        evict(modelVersion);
+    }
+
+    private static void write(Writer out, Collection<String> ids, Map<String, Entry> entries) throws IOException {
+        for (String id : ids) {
+            Entry entry = entries.get(id);
+            out.write(FileProfileSource.escape(id) + '\t' + entry.hash + '\t' + entry.entities.size() + '\n');
+            for (NER ner : entry.entities) {
+                out.write(ner.start + "\t" + ner.end + '\t' + FileProfileSource.escape(ner.type) + '\t' + FileProfileSource.escape(ner.text));
+                out.write(entry.gazetteerEntities.contains(ner) ? "\t" + GAZETTEER + '\n' : "\n");
+            }
+        }
+    }
+
+    /**
+     * Deletes the least recently used files, except the one of {@code current} and those of pinned versions.
+     * Runs under the same lock that loads versions, so a version is never dropped while it is being loaded.
+     */
+    private void evict(String current) {
+        synchronized (versions) {
+            File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+            if (files == null) {
+                return;
+            }
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+            long bytes = 0;
+            int kept = 0;
+            for (File file : files) {
+                String name = file.getName();
+                String modelVersion = name.substring(0, name.length() - SUFFIX.length());
+                long length = file.length();
+                bytes += length;
+                kept++;
+                if (kept > 1 && (kept > maxEntries || bytes > maxBytes) && !modelVersion.equals(current) && !pins.containsKey(modelVersion)
+                        && file.delete()) {
+                    versions.remove(modelVersion);
+                    bytes -= length;
+                    kept--;
+                }
+            }
+        }
+    }
+
+    private Version entries(String modelVersion) throws IOException {
+        Version version = versions.get(modelVersion);
+        if (version == null) {
+            synchronized (versions) {
+                version = versions.get(modelVersion);
+                if (version == null) {
+                    File file = file(modelVersion);
+                    version = load(file);
+                    file.setLastModified(System.currentTimeMillis());
+                    versions.put(modelVersion, version);
+                }
+            }
+        }
+        return version;
+    }
+
+    private static Version load(File file) throws IOException {
+        Version version = new Version();
+        if (!file.isFile()) {
+            return version;
+        }
+        version.compact = dropPartialLine(file);
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 3) {
+                    throw new IOException("Expected a profile line in " + file + ": " + line);
+                }
+                int count = Integer.parseInt(fields[2]);
+                List<NER> entities = new ArrayList<>(count);
+                Set<NER> gazetteerEntities = new HashSet<>();
+                for (int i = 0; i < count; i++) {
+                    line = in.readLine();
+                    if (line == null) {
+                        version.compact = true;
+                        return version;
+                    }
+                    String[] entity = line.split("\t", -1);
+                    if (entity.length != 4 && (entity.length != 5 || !entity[4].equals(GAZETTEER))) {
+                        throw new IOException("Expected an entity line in " + file + ": " + line);
+                    }
+                    NER ner = new NER(FileProfileSource.unescape(entity[3]), Integer.parseInt(entity[0]), Integer.parseInt(entity[1]),
+                            FileProfileSource.unescape(entity[2]));
+                    entities.add(ner);
+                    if (entity.length == 5) {
+                        gazetteerEntities.add(ner);
+                    }
+                }
+                version.entries.put(FileProfileSource.unescape(fields[0]), new Entry(fields[1], entities, gazetteerEntities));
+                version.records++;
+            }
+        }
+        return version;
+    }
+
+    /**
+     * Truncates {@code file} after its last line break, so an append cut short by a crash leaves no
+     * partial line. Returns whether anything was cut.
+     */
+    private static boolean dropPartialLine(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            long end = channel.size();
+            while (end > 0) {
+                long start = Math.max(0, end - buffer.capacity());
+                buffer.clear().limit((int) (end - start));
+                channel.read(buffer, start);
+                for (int i = buffer.position() - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        long length = start + i + 1;
+                        if (length == channel.size()) {
+                            return false;
+                        }
+                        channel.truncate(length);
+                        return true;
+                    }
+                }
+                end = start;
+            }
+            boolean partial = channel.size() > 0;
+            channel.truncate(0);
+            return partial;
+        }
+    }
+
+    private File file(String modelVersion) {
+        return new File(directory, modelVersion + SUFFIX);
+    }
+
+    /**
+     * The profiles of one version, the ids put since the last save and the number of profile records in
+     * the file, superseded ones included. {@code compact} forces the next save to rewrite the file.
+     */
+    private static class Version {
+        final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        final Set<String> dirty = new LinkedHashSet<>();
+        int records;
+        boolean compact;
+
+        Entry get(String id) {
+            return entries.get(id);
+        }
+
+        synchronized void put(String id, Entry entry) {
+            entries.put(id, entry);
+            dirty.add(id);
+        }
+
+        int size() {
+            return entries.size();
+        }
+    }
+
+    public static class Entry {
+        public final String hash;
+        public final List<NER> entities;
+        public final Set<NER> gazetteerEntities;
+
+        Entry(String hash, List<NER> entities, Set<NER> gazetteerEntities) {
+            this.hash = hash;
+            this.entities = entities;
+            this.gazetteerEntities = gazetteerEntities;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package opennlp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small integer ids for entity types. The four Lattes types come first; types only the HAREM corpus
+ * uses (TEMPO, VALOR, ...) get the next free ids the first time they are seen.
+ */
+public final class EntityTypes {
+
+    public static final String PESSOA = "PESSOA";
+    public static final String ORGANIZACAO = "ORGANIZACAO";
+    public static final String LOCAL = "LOCAL";
+    public static final String ABSTRACCAO = "ABSTRACCAO";
+
+    public static final int MAX_TYPES = 256;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final List<String> NAMES = new ArrayList<>();
+
+    static {
+        id(PESSOA);
+        id(ORGANIZACAO);
+        id(LOCAL);
+        id(ABSTRACCAO);
+    }
+
+    private EntityTypes() {
+    }
+
+    public static int id(String type) {
+        Integer id = IDS.get(type);
+        return id != null ? id : register(type);
+    }
+
+    private static synchronized int register(String type) {
+        Integer id = IDS.get(type);
+        if (id == null) {
+            if (NAMES.size() == MAX_TYPES) {
+                throw new IllegalStateException("More than " + MAX_TYPES + " entity types");
+            }
+            id = NAMES.size();
+            NAMES.add(type);
+            IDS.put(type, id);
+        }
+        return id;
+    }
+
+    public static synchronized String name(int id) {
+        return NAMES.get(id);
+    }
+
+    public static synchronized int count() {
+        return NAMES.size();
+    }
+}
@@ -0,0 +1,288 @@
+package opennlp;
+
+import opennlp.tools.dictionary.Dictionary;
+import opennlp.tools.util.StringList;
+import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
+import opennlp.tools.util.featuregen.AggregatedFeatureGenerator;
+import opennlp.tools.util.featuregen.BigramNameFeatureGenerator;
+import opennlp.tools.util.featuregen.CachedFeatureGenerator;
+import opennlp.tools.util.featuregen.DictionaryFeatureGenerator;
+import opennlp.tools.util.featuregen.OutcomePriorFeatureGenerator;
+import opennlp.tools.util.featuregen.PreviousMapFeatureGenerator;
+import opennlp.tools.util.featuregen.SentenceFeatureGenerator;
+import opennlp.tools.util.featuregen.TokenClassFeatureGenerator;
+import opennlp.tools.util.featuregen.TokenFeatureGenerator;
+import opennlp.tools.util.featuregen.WindowFeatureGenerator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A named feature generator configuration. Training and tagging must use the same pipeline, so
+ * {@link CurriculumTrainer} and {@link NerInferenceEngine} both take one, and its name is part of the
+ * {@link ModelFingerprint}.
+ *
+ * A profiled pipeline wraps every component, and the pipeline as a whole under {@code total}, in a
+ * generator that counts calls, time, features and bytes allocated. Components inside a cached pipeline
+ * are only called on cache misses.
+ */
+public class FeaturePipeline {
+
+    public static final String TOTAL = "total";
+
+    private static final String[][] UNIVERSITIES = {
+            {"Universidade", "Federal", "de", "Santa", "Catarina"}, {"UFSC"},
+            {"Universidade", "de", "São", "Paulo"}, {"USP"},
+            {"Universidade", "Estadual", "de", "Campinas"}, {"Unicamp"}, {"UNICAMP"},
+            {"Universidade", "Federal", "do", "Rio", "de", "Janeiro"}, {"UFRJ"},
+            {"Universidade", "Federal", "do", "Rio", "Grande", "do", "Sul"}, {"UFRGS"},
+            {"Universidade", "Federal", "de", "Minas", "Gerais"}, {"UFMG"},
+            {"Universidade", "Federal", "do", "Paraná"}, {"UFPR"},
+            {"Universidade", "Federal", "de", "Santa", "Maria"}, {"UFSM"},
+            {"Universidade", "Federal", "de", "Pernambuco"}, {"UFPE"},
+            {"Universidade", "Federal", "da", "Bahia"}, {"UFBA"},
+            {"Universidade", "Federal", "de", "Goiás"}, {"UFG"},
+            {"Universidade", "de", "Brasília"}, {"UnB"},
+            {"Universidade", "Estadual", "Paulista"}, {"UNESP"},
+            {"Universidade", "do", "Estado", "de", "Santa", "Catarina"}, {"UDESC"},
+            {"Universidade", "de", "Passo", "Fundo"}, {"UPF"},
+            {"Pontifícia", "Universidade", "Católica", "do", "Rio", "Grande", "do", "Sul"}, {"PUCRS"},
+            {"Pontifícia", "Universidade", "Católica", "do", "Rio", "de", "Janeiro"}, {"PUC-Rio"},
+            {"Universidade", "Tecnológica", "Federal", "do", "Paraná"}, {"UTFPR"},
+            {"Instituto", "Tecnológico", "de", "Aeronáutica"}, {"ITA"},
+    };
+
+    private final String name;
+    private final boolean cached;
+    private final Map<String, Supplier<AdaptiveFeatureGenerator>> components = new LinkedHashMap<>();
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private volatile boolean profiled;
+
+    public FeaturePipeline(String name, boolean cached) {
+        this.name = name;
+        this.cached = cached;
+    }
+
+    /**
+     * The generator {@code NameFinderME} uses when none is given.
+     */
+    public static FeaturePipeline defaults() {
+        return withDefaults(new FeaturePipeline("default", true));
+    }
+
+    private static FeaturePipeline withDefaults(FeaturePipeline pipeline) {
+        return pipeline
+                .add("token", () -> new WindowFeatureGenerator(new TokenFeatureGenerator(), 2, 2))
+                .add("tokenClass", () -> new WindowFeatureGenerator(new TokenClassFeatureGenerator(true), 2, 2))
+                .add("outcomePrior", OutcomePriorFeatureGenerator::new)
+                .add("previousMap", PreviousMapFeatureGenerator::new)
+                .add("bigram", BigramNameFeatureGenerator::new)
+                .add("sentence", () -> new SentenceFeatureGenerator(true, false));
+    }
+
+    /**
+     * Windows of one token, without the previous-map and bigram features and without a cache.
+     */
+    public static FeaturePipeline fixedWindow() {
+        return new FeaturePipeline("fixedWindow", false)
+                .add("token", () -> new WindowFeatureGenerator(new TokenFeatureGenerator(), 1, 1))
+                .add("tokenClass", () -> new WindowFeatureGenerator(new TokenClassFeatureGenerator(true), 1, 1))
+                .add("outcomePrior", OutcomePriorFeatureGenerator::new)
+                .add("sentence", () -> new SentenceFeatureGenerator(true, false));
+    }
+
+    /**
+     * The default windows of token and token-class features behind a cache, without the previous-map
+     * and bigram features.
+     */
+    public static FeaturePipeline cachedTokenClass() {
+        return new FeaturePipeline("cachedTokenClass", true)
+                .add("token", () -> new WindowFeatureGenerator(new TokenFeatureGenerator(), 2, 2))
+                .add("tokenClass", () -> new WindowFeatureGenerator(new TokenClassFeatureGenerator(true), 2, 2))
+                .add("outcomePrior", OutcomePriorFeatureGenerator::new)
+                .add("sentence", () -> new SentenceFeatureGenerator(true, false));
+    }
+
+    /**
+     * The default generator plus a lookup of Brazilian university names and acronyms.
+     */
+    public static FeaturePipeline universities() {
+        Dictionary dictionary = new Dictionary(true);
+        for (String[] university : UNIVERSITIES) {
+            dictionary.put(new StringList(university));
+        }
+        return withDefaults(new FeaturePipeline("universities", true))
+                .add("universities", () -> new DictionaryFeatureGenerator("univ", dictionary));
+    }
+
+    public static List<FeaturePipeline> all() {
+        return Arrays.asList(defaults(), fixedWindow(), cachedTokenClass(), universities());
+    }
+
+    public static FeaturePipeline named(String name) {
+        for (FeaturePipeline pipeline : all()) {
+            if (pipeline.name.equals(name)) {
+                return pipeline;
+            }
+        }
+        throw new IllegalArgumentException("Unknown feature pipeline: " + name);
+    }
+
+    /**
+     * Pipeline from {@code ner.features} (default: {@code default}), profiled if {@code ner.features.profile} is set.
+     */
+    public static FeaturePipeline fromSystemProperties() {
+        FeaturePipeline pipeline = named(System.getProperty("ner.features", "default"));
+        return Boolean.getBoolean("ner.features.profile") ? pipeline.profiled() : pipeline;
+    }
+
+    public FeaturePipeline add(String component, Supplier<AdaptiveFeatureGenerator> generator) {
+        components.put(component, generator);
+        return this;
+    }
+
+    public synchronized FeaturePipeline profiled() {
+        for (String component : components.keySet()) {
+            stats(component);
+        }
+        stats(TOTAL);
+        profiled = true;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * A new generator. Generators keep adaptive data and are not thread safe, so every thread needs its own.
+     */
+    public AdaptiveFeatureGenerator create() {
+        List<AdaptiveFeatureGenerator> generators = new ArrayList<>(components.size());
+        for (Map.Entry<String, Supplier<AdaptiveFeatureGenerator>> component : components.entrySet()) {
+            AdaptiveFeatureGenerator generator = component.getValue().get();
+            generators.add(profiled ? new TimedFeatureGenerator(generator, stats(component.getKey())) : generator);
+        }
+        AdaptiveFeatureGenerator[] array = generators.toArray(new AdaptiveFeatureGenerator[0]);
+        AdaptiveFeatureGenerator generator = cached ? new CachedFeatureGenerator(array) : new AggregatedFeatureGenerator(array);
+        return profiled ? new TimedFeatureGenerator(generator, stats(TOTAL)) : generator;
+    }
+
+    /**
+     * Counters per component, followed by {@link #TOTAL}. Empty unless the pipeline is profiled.
+     */
+    public synchronized List<Stats> getStats() {
+        return new ArrayList<>(stats.values());
+    }
+
+    public synchronized void resetStats() {
+        for (Stats component : stats.values()) {
+            component.reset();
+        }
+    }
+
+    private synchronized Stats stats(String component) {
+        return stats.computeIfAbsent(component, Stats::new);
+    }
+
+    public String toString() {
+        return name + components.keySet();
+    }
+
+    public static class Stats {
+        public final String component;
+        final LongAdder calls = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder features = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+
+        Stats(String component) {
+            this.component = component;
+        }
+
+        void reset() {
+            calls.reset();
+            nanos.reset();
+            features.reset();
+            bytes.reset();
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        public long getFeatures() {
+            return features.sum();
+        }
+
+        /**
+         * Bytes allocated, or 0 if the JVM cannot measure allocation per thread.
+         */
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        public String toString() {
+            return String.format("%-14s %10d chamadas %10.1f ms %12d features %10.1f MB",
+                    component, getCalls(), getNanos() / 1e6, getFeatures(), getBytes() / 1048576.0);
+        }
+    }
+
+    private static class TimedFeatureGenerator implements AdaptiveFeatureGenerator {
+        private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+        private final AdaptiveFeatureGenerator generator;
+        private final Stats stats;
+
+        TimedFeatureGenerator(AdaptiveFeatureGenerator generator, Stats stats) {
+            this.generator = generator;
+            this.stats = stats;
+        }
+
+        private static com.sun.management.ThreadMXBean threads() {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+                ((com.sun.management.ThreadMXBean) threads).setThreadAllocatedMemoryEnabled(true);
+                return (com.sun.management.ThreadMXBean) threads;
+            }
+            return null;
+        }
+
+        private static long allocated() {
+            return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        @Override
+        public void createFeatures(List<String> features, String[] tokens, int index, String[] previousOutcomes) {
+            int before = features.size();
+            long bytes = allocated();
+            long start = System.nanoTime();
+            generator.createFeatures(features, tokens, index, previousOutcomes);
+            stats.nanos.add(System.nanoTime() - start);
+            stats.bytes.add(allocated() - bytes);
+            stats.features.add(features.size() - before);
+            stats.calls.increment();
+        }
+
+        @Override
+        public void updateAdaptiveData(String[] tokens, String[] outcomes) {
+            generator.updateAdaptiveData(tokens, outcomes);
+        }
+
+        @Override
+        public void clearAdaptiveData() {
+            generator.clearAdaptiveData();
+        }
+    }
+}
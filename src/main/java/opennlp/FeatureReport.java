@@ -0,0 +1,89 @@
+package opennlp;
+
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.model.ModelUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trains and tags one curriculum step with each {@link FeaturePipeline}, to weigh the accuracy of a
+ * configuration against its tagging throughput. Tagging runs on a single thread so the throughput of
+ * the configurations can be compared, and the feature counters only cover tagging.
+ */
+public class FeatureReport {
+
+    private final TrainingCorpusStream.Source base;
+    private final CurriculumData data;
+
+    public FeatureReport(TrainingCorpusStream.Source base, CurriculumData data) {
+        this.base = base;
+        this.data = data;
+    }
+
+    public List<Row> run(List<FeaturePipeline> pipelines, int passo) throws IOException {
+        List<Row> rows = new ArrayList<>(pipelines.size());
+        for (FeaturePipeline pipeline : pipelines) {
+            rows.add(evaluate(pipeline, passo));
+        }
+        return rows;
+    }
+
+    public Row evaluate(FeaturePipeline pipeline, int passo) throws IOException {
+        pipeline.profiled();
+        CurriculumData.Split split = data.split(passo);
+        CurriculumTrainer trainer = new CurriculumTrainer("pt-br", "train", ModelUtil.createTrainingParameters(100, 5), pipeline, base);
+        long start = System.nanoTime();
+        TokenNameFinderModel model = trainer.train(passo, split.train.values());
+        long trainNanos = System.nanoTime() - start;
+
+        long tokens = 0;
+        for (Profile profile : split.search.values()) {
+            tokens += TokenizerService.get().tokenize(profile.data).length;
+        }
+        pipeline.resetStats();
+        start = System.nanoTime();
+        try (NerInferenceEngine engine = new NerInferenceEngine(model, pipeline, 1, NerInferenceEngine.DEFAULT_SHARD_SIZE)) {
+            engine.identify(split.search.values());
+        }
+        long tagNanos = System.nanoTime() - start;
+
+        Scorer scorer = new Scorer();
+        for (String id : split.test.keySet()) {
+            scorer.score(split.search.get(id), split.test.get(id));
+        }
+        return new Row(pipeline.getName(), scorer.total(), trainNanos, tagNanos, tokens, pipeline.getStats());
+    }
+
+    public static class Row {
+        public final String pipeline;
+        public final Scorer.TypeScore score;
+        public final long trainNanos;
+        public final long tagNanos;
+        public final long tokens;
+        public final List<FeaturePipeline.Stats> stats;
+
+        Row(String pipeline, Scorer.TypeScore score, long trainNanos, long tagNanos, long tokens, List<FeaturePipeline.Stats> stats) {
+            this.pipeline = pipeline;
+            this.score = score;
+            this.trainNanos = trainNanos;
+            this.tagNanos = tagNanos;
+            this.tokens = tokens;
+            this.stats = stats;
+        }
+
+        public double tokensPerSecond() {
+            return tagNanos == 0 ? 0 : tokens * 1e9 / tagNanos;
+        }
+
+        public String toString() {
+            StringBuilder result = new StringBuilder(String.format("%-16s P=%.4f R=%.4f F1=%.4f, treino em %.1f s, %.0f tokens/s",
+                    pipeline, score.precision(), score.recall(), score.f1(), trainNanos / 1e9, tokensPerSecond()));
+            for (FeaturePipeline.Stats component : stats) {
+                result.append("\n  ").append(component);
+            }
+            return result.toString();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package opennlp;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.function.Consumer;
+
+/**
+ * A file-backed stand-in for {@code lattes_ner}, used for offline runs and tests. Each line holds
+ * {@code lattes_id, passo, pt, ner_pt_manual} separated by tabs, with an empty {@code passo} for null
+ * and backslash escapes for tabs, line breaks and backslashes inside the text.
+ */
+public class FileProfileSource implements ProfileSource {
+
+    private final File file;
+
+    public FileProfileSource(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Copies every row of {@code source} into {@code file}, e.g. to take a snapshot of the database.
+     */
+    public static void write(ProfileSource source, File file) throws IOException {
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+            IOException[] error = new IOException[1];
+            source.read(record -> {
+                if (error[0] != null) {
+                    return;
+                }
+                try {
+                    out.write(escape(record.id));
+                    out.write('\t');
+                    out.write(record.passo == null ? "" : record.passo.toString());
+                    out.write('\t');
+                    out.write(escape(record.data));
+                    out.write('\t');
+                    out.write(escape(record.golden));
+                    out.write('\n');
+                } catch (IOException e) {
+                    error[0] = e;
+                }
+            });
+            if (error[0] != null) {
+                throw error[0];
+            }
+        }
+    }
+
+    @Override
+    public void read(Consumer<ProfileRecord> consumer) throws IOException {
+        try (BufferedReader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 4) {
+                    throw new IOException("Expected 4 fields but found " + fields.length + " in " + file + ": " + line);
+                }
+                consumer.accept(new ProfileRecord(unescape(fields[0]), unescape(fields[2]), unescape(fields[3]),
+                        fields[1].isEmpty() ? null : Integer.valueOf(fields[1])));
+            }
+        }
+    }
+
+    static String escape(String value) {
+        if (value == null) {
+            return "\\0";
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': result.append("\\\\"); break;
+                case '\t': result.append("\\t"); break;
+                case '\n': result.append("\\n"); break;
+                case '\r': result.append("\\r"); break;
+                default: result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    static String unescape(String value) {
+        if (value.equals("\\0")) {
+            return null;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 't': result.append('\t'); break;
+                    case 'n': result.append('\n'); break;
+                    case 'r': result.append('\r'); break;
+                    default: result.append(next);
+                }
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,157 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.Span;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Known entity names in a token trie. Tokens are mapped to ids and every edge is one entry of a
+ * {@code (node << 32 | token id)} map, so the trie stays small even with the whole HAREM corpus in it.
+ *
+ * {@link #match(String[])} tags the longest known name starting at each token and continues after it,
+ * a single left-to-right pass. Names seen with two different types are ambiguous and never matched, and
+ * single-token names are only kept if they look like acronyms ("UFSC", "PPGCC"), since common single
+ * words are entities in some contexts only.
+ */
+public class Gazetteer {
+
+    private static final int NONE = -1;
+    private static final int AMBIGUOUS = -2;
+
+    private final Map<String, Integer> tokenIds = new HashMap<>();
+    private final Map<Long, Integer> edges = new HashMap<>();
+    private int[] types = {NONE};
+    private int nodes = 1;
+    private int names;
+
+    public Gazetteer add(String[] tokens, String type) {
+        if (tokens.length == 0 || tokens.length == 1 && !isAcronym(tokens[0])) {
+            return this;
+        }
+        int node = 0;
+        for (String token : tokens) {
+            Integer id = tokenIds.get(token);
+            if (id == null) {
+                id = tokenIds.size();
+                tokenIds.put(token, id);
+            }
+            long edge = (long) node << 32 | id;
+            Integer next = edges.get(edge);
+            if (next == null) {
+                next = newNode();
+                edges.put(edge, next);
+            }
+            node = next;
+        }
+        int typeId = EntityTypes.id(type);
+        if (types[node] == NONE) {
+            types[node] = typeId;
+            names++;
+        } else if (types[node] != typeId && types[node] != AMBIGUOUS) {
+            types[node] = AMBIGUOUS;
+            names--;
+        }
+        return this;
+    }
+
+    /**
+     * Adds the names of a corpus such as HAREM.
+     */
+    public Gazetteer addSamples(ObjectStream<NameSample> samples) throws IOException {
+        try {
+            NameSample sample;
+            while ((sample = samples.read()) != null) {
+                String[] sentence = sample.getSentence();
+                for (Span name : sample.getNames()) {
+                    add(Arrays.copyOfRange(sentence, name.getStart(), name.getEnd()), name.getType());
+                }
+            }
+        } finally {
+            samples.close();
+        }
+        return this;
+    }
+
+    /**
+     * Adds the gold entities of {@code profiles}, tokenized the way profile text is tokenized for tagging.
+     */
+    public Gazetteer addProfiles(Collection<Profile> profiles, TokenizerService tokenizer) {
+        for (Profile profile : profiles) {
+            for (NER ner : profile.goldenNERS) {
+                add(tokenizer.tokenize(ner.text), ner.type);
+            }
+        }
+        return this;
+    }
+
+    public List<NER> match(String[] tokens) {
+        if (names == 0) {
+            return Collections.emptyList();
+        }
+        List<NER> result = new ArrayList<>();
+        int i = 0;
+        while (i < tokens.length) {
+            int node = 0;
+            int end = NONE;
+            int type = NONE;
+            for (int j = i; j < tokens.length; j++) {
+                Integer id = tokenIds.get(tokens[j]);
+                Integer next = id == null ? null : edges.get((long) node << 32 | id);
+                if (next == null) {
+                    break;
+                }
+                node = next;
+                if (types[node] >= 0) {
+                    end = j + 1;
+                    type = types[node];
+                }
+            }
+            if (end == NONE) {
+                i++;
+            } else {
+                result.add(new NER(String.join(" ", Arrays.copyOfRange(tokens, i, end)), i, end, EntityTypes.name(type)));
+                i = end;
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return names;
+    }
+
+    private int newNode() {
+        if (nodes == types.length) {
+            types = Arrays.copyOf(types, nodes * 2);
+            Arrays.fill(types, nodes, types.length, NONE);
+        }
+        return nodes++;
+    }
+
+    private static boolean isAcronym(String token) {
+        int upper = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (Character.isLowerCase(c)) {
+                return false;
+            }
+            if (Character.isUpperCase(c)) {
+                upper++;
+            }
+        }
+        return upper >= 2;
+    }
+
+    public String toString() {
+        return String.format("Gazetteer com %d nomes, %d nós, %d tokens", names, nodes, tokenIds.size());
+    }
+}
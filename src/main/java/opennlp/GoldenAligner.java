@@ -0,0 +1,144 @@
+package opennlp;
+
+import opennlp.tools.util.Span;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Converts a manually annotated profile ({@code <PER>...</PER>}, {@code <ORG>}, {@code <LOC>}, {@code <MISC>})
+ * into token spans. The markup is stripped in one scan that records the character range of every entity,
+ * the clean text is tokenized once, and a single forward pass over the tokens turns character ranges into
+ * token ranges. An entity whose boundaries fall inside a token is reported instead of being searched for.
+ */
+public class GoldenAligner implements CurriculumData.GoldenConverter {
+
+    private static final Pattern TAG = Pattern.compile("<(/?)([^>]+)>");
+
+    private final TokenizerService tokenizer;
+    private final List<String> unmatched = Collections.synchronizedList(new ArrayList<>());
+
+    public GoldenAligner() {
+        this(TokenizerService.get());
+    }
+
+    public GoldenAligner(TokenizerService tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    public static class Alignment {
+        public final String text;
+        public final List<NER> entities = new ArrayList<>();
+        public final List<String> unmatched = new ArrayList<>();
+
+        Alignment(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * Same as {@link #align(String)}, collecting entities that could not be aligned in {@link #getUnmatched()}.
+     */
+    @Override
+    public List<NER> convert(String golden) {
+        Alignment alignment = align(golden);
+        unmatched.addAll(alignment.unmatched);
+        return alignment.entities;
+    }
+
+    public List<String> getUnmatched() {
+        synchronized (unmatched) {
+            return new ArrayList<>(unmatched);
+        }
+    }
+
+    public Alignment align(String golden) {
+        StringBuilder text = new StringBuilder(golden.length() + golden.length() / 16);
+        List<NER> entities = new ArrayList<>();
+        List<int[]> ranges = new ArrayList<>();
+
+        Matcher m = TAG.matcher(golden);
+        int last = 0;
+        String openType = null;
+        int openAt = 0;
+        int openText = 0;
+        while (m.find()) {
+            appendText(text, golden, last, m.start());
+            if (m.group(1).isEmpty()) {
+                openType = m.group(2);
+                openAt = text.length();
+                openText = m.end();
+            } else if (openType != null && m.start() > openText) {
+                entities.add(new NER(golden.substring(openText, m.start()), 0, 0, toType(openType)));
+                ranges.add(new int[] {openAt, text.length()});
+                openType = null;
+            } else {
+                openType = null;
+            }
+            last = m.end();
+        }
+        appendText(text, golden, last, golden.length());
+
+        Alignment alignment = new Alignment(text.toString());
+        Span[] tokens = tokenizer.tokenizePos(alignment.text);
+        int token = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            NER ner = entities.get(i);
+            int start = ranges.get(i)[0];
+            int end = ranges.get(i)[1];
+            while (start < end && Character.isWhitespace(alignment.text.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(alignment.text.charAt(end - 1))) {
+                end--;
+            }
+            while (token < tokens.length && tokens[token].getEnd() <= start) {
+                token++;
+            }
+            int first = token;
+            int next = token;
+            while (next < tokens.length && tokens[next].getStart() < end) {
+                next++;
+            }
+            if (start == end || first == next || tokens[first].getStart() != start || tokens[next - 1].getEnd() != end) {
+                alignment.unmatched.add(ner.toString() + " at characters " + start + ".." + end);
+                continue;
+            }
+            ner.start = first;
+            ner.end = next;
+            alignment.entities.add(ner);
+            token = next;
+        }
+        return alignment;
+    }
+
+    /**
+     * Copies plain text between tags, spacing commas out the way the gold standard was tokenized.
+     */
+    private static void appendText(StringBuilder text, String golden, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = golden.charAt(i);
+            text.append(c);
+            if (c == ',') {
+                text.append(' ');
+            }
+        }
+    }
+
+    static String toType(String tag) {
+        switch (tag) {
+            case "LOC":
+            case "LOCAL":
+                return "LOCAL";
+            case "PER":
+                return "PESSOA";
+            case "ORG":
+                return "ORGANIZACAO";
+            default:
+                return "ABSTRACCAO";
+        }
+    }
+}
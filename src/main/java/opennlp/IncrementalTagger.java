@@ -0,0 +1,94 @@
+package opennlp;
+
+import opennlp.tools.namefind.TokenNameFinderModel;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Tags only the profiles whose text changed since they were last tagged with the same model, and serves
+ * every other profile from the {@link EntityStore}. A run then costs time in proportion to the changed
+ * profiles instead of the whole table.
+ */
+public class IncrementalTagger {
+
+    private final EntityStore store;
+    private final int parallelism;
+    private final FeaturePipeline pipeline;
+    private final Gazetteer gazetteer;
+
+    public IncrementalTagger(EntityStore store) {
+        this(store, Runtime.getRuntime().availableProcessors());
+    }
+
+    public IncrementalTagger(EntityStore store, int parallelism) {
+        this(store, parallelism, FeaturePipeline.defaults());
+    }
+
+    public IncrementalTagger(EntityStore store, int parallelism, FeaturePipeline pipeline) {
+        this(store, parallelism, pipeline, null);
+    }
+
+    /**
+     * With a {@code gazetteer}, the model version passed to {@link #tag} must also identify the gazetteer.
+     */
+    public IncrementalTagger(EntityStore store, int parallelism, FeaturePipeline pipeline, Gazetteer gazetteer) {
+        this.store = store;
+        this.parallelism = parallelism;
+        this.pipeline = pipeline;
+        this.gazetteer = gazetteer;
+    }
+
+    /**
+     * Fills the found entities of {@code profiles}. {@code modelVersion} identifies {@code model}, e.g. its
+     * {@link ModelFingerprint}; entities stored under another version are never reused.
+     */
+    public Result tag(Collection<Profile> profiles, TokenNameFinderModel model, String modelVersion) throws IOException {
+        store.pin(modelVersion);
+        try {
+            List<Profile> changed = new ArrayList<>();
+            List<String> hashes = new ArrayList<>();
+            for (Profile profile : profiles) {
+                String hash = EntityStore.hash(profile.data);
+                EntityStore.Entry entry = store.get(modelVersion, profile.id);
+                if (entry != null && entry.hash.equals(hash)) {
+                    profile.foundNERS.addAll(entry.entities);
+                    profile.gazetteerNERS.addAll(entry.gazetteerEntities);
+                } else {
+                    changed.add(profile);
+                    hashes.add(hash);
+                }
+            }
+
+            if (!changed.isEmpty()) {
+                try (NerInferenceEngine engine = new NerInferenceEngine(model, pipeline, gazetteer, parallelism, NerInferenceEngine.DEFAULT_SHARD_SIZE)) {
+                    engine.identify(changed);
+                }
+                for (int i = 0; i < changed.size(); i++) {
+                    Profile profile = changed.get(i);
+                    store.put(modelVersion, profile.id, hashes.get(i), profile.foundNERS, profile.gazetteerNERS);
+                }
+                store.save(modelVersion);
+            }
+            return new Result(profiles.size() - changed.size(), changed.size());
+        } finally {
+            store.unpin(modelVersion);
+        }
+    }
+
+    public static class Result {
+        public final int reused;
+        public final int tagged;
+
+        Result(int reused, int tagged) {
+            this.reused = reused;
+            this.tagged = tagged;
+        }
+
+        public String toString() {
+            return String.format("%d perfis reaproveitados, %d etiquetados", reused, tagged);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package opennlp;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Reads {@code lattes_ner} in a single query. Auto-commit is turned off so the PostgreSQL driver
+ * honours the fetch size and streams the rows through a cursor instead of buffering the table.
+ */
+public class JdbcProfileSource implements ProfileSource {
+
+    public static final String QUERY = "SELECT lattes_id, pt, ner_pt_manual, passo FROM lattes_ner";
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int fetchSize;
+
+    public JdbcProfileSource(String url, String user, String password, int fetchSize) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Connection settings from the {@code ner.jdbc.url}, {@code ner.jdbc.user}, {@code ner.jdbc.password}
+     * and {@code ner.jdbc.fetchSize} system properties, defaulting to the lab database.
+     */
+    public static JdbcProfileSource fromSystemProperties() {
+        return new JdbcProfileSource(
+                System.getProperty("ner.jdbc.url", "jdbc:postgresql://10.0.1.220:5432/ner"),
+                System.getProperty("ner.jdbc.user", "ner"),
+                System.getProperty("ner.jdbc.password", "ner"),
+                Integer.getInteger("ner.jdbc.fetchSize", 200));
+    }
+
+    @Override
+    public void read(Consumer<ProfileRecord> consumer) throws IOException {
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(QUERY)) {
+                statement.setFetchSize(fetchSize);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        int passo = resultSet.getInt(4);
+                        consumer.accept(new ProfileRecord(resultSet.getString(1), resultSet.getString(2),
+                                resultSet.getString(3), resultSet.wasNull() ? null : passo));
+                    }
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+    }
+}
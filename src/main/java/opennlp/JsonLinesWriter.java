@@ -0,0 +1,114 @@
+package opennlp;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Appends one JSON object per line to a file. Values may be strings, numbers, booleans, null, maps and
+ * collections. Every line is flushed, so a crashed run keeps what it measured.
+ */
+public class JsonLinesWriter implements AutoCloseable {
+
+    private final File file;
+    private Writer out;
+
+    public JsonLinesWriter(File file) {
+        this.file = file;
+    }
+
+    public synchronized void write(Map<String, ?> record) {
+        try {
+            if (out == null) {
+                File parent = file.getAbsoluteFile().getParentFile();
+                Files.createDirectories(parent.toPath());
+                out = new BufferedWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+            }
+            out.write(toJson(record));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String toJson(Object value) {
+        StringBuilder result = new StringBuilder();
+        append(result, value);
+        return result.toString();
+    }
+
+    private static void append(StringBuilder result, Object value) {
+        if (value == null) {
+            result.append("null");
+        } else if (value instanceof Map) {
+            result.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    result.append(',');
+                }
+                appendString(result, String.valueOf(entry.getKey()));
+                result.append(':');
+                append(result, entry.getValue());
+                first = false;
+            }
+            result.append('}');
+        } else if (value instanceof Collection) {
+            result.append('[');
+            boolean first = true;
+            for (Object element : (Collection<?>) value) {
+                if (!first) {
+                    result.append(',');
+                }
+                append(result, element);
+                first = false;
+            }
+            result.append(']');
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            result.append(Double.isFinite(number) ? String.valueOf(number) : "null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            result.append(value);
+        } else {
+            appendString(result, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder result, String value) {
+        result.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': result.append("\\\""); break;
+                case '\\': result.append("\\\\"); break;
+                case '\n': result.append("\\n"); break;
+                case '\r': result.append("\\r"); break;
+                case '\t': result.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        result.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        result.append(c);
+                    }
+            }
+        }
+        result.append('"');
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package opennlp;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and stage timers identified by a name plus {@code key, value} tags, in the style of a
+ * Micrometer registry: asking twice for the same name and tags returns the same meter. Every recorded
+ * {@link StageMetrics} can also be written to a {@link JsonLinesWriter} as it happens.
+ */
+public class MetricsRegistry {
+
+    private final Map<String, Meter> meters = new ConcurrentHashMap<>();
+    private final JsonLinesWriter writer;
+
+    public MetricsRegistry() {
+        this(null);
+    }
+
+    public MetricsRegistry(JsonLinesWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Registry writing to the file named by {@code ner.metrics.file}, if set.
+     */
+    public static MetricsRegistry fromSystemProperties() {
+        String file = System.getProperty("ner.metrics.file");
+        return new MetricsRegistry(file == null ? null : new JsonLinesWriter(new File(file)));
+    }
+
+    public Counter counter(String name, String... tags) {
+        return (Counter) meters.computeIfAbsent(id(name, tags), id -> new Counter(name, tags(tags)));
+    }
+
+    public Timer timer(String name, String... tags) {
+        return (Timer) meters.computeIfAbsent(id(name, tags), id -> new Timer(name, tags(tags)));
+    }
+
+    /**
+     * Adds {@code metrics} to the {@code ner.stage} timer and the {@code ner.documents} and {@code ner.tokens}
+     * counters of its stage, and writes it as one JSON line with the given tags. The tags (step, model and
+     * data versions) only go to the JSON line, so the meters stay one per stage.
+     */
+    public void record(StageMetrics metrics, String... tags) {
+        timer("ner.stage", "stage", metrics.stage).record(metrics);
+        counter("ner.documents", "stage", metrics.stage).increment(metrics.documents);
+        counter("ner.tokens", "stage", metrics.stage).increment(metrics.tokens);
+        if (writer != null) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("timestamp", System.currentTimeMillis());
+            line.put("type", "stage");
+            line.putAll(tags(tags));
+            line.putAll(metrics.toMap());
+            writer.write(line);
+        }
+    }
+
+    /**
+     * Writes every meter as a JSON line, e.g. at the end of a run.
+     */
+    public void publish() {
+        if (writer != null) {
+            for (Meter meter : getMeters()) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("timestamp", System.currentTimeMillis());
+                line.put("type", meter.getClass().getSimpleName().toLowerCase());
+                line.putAll(meter.toMap());
+                writer.write(line);
+            }
+        }
+    }
+
+    public List<Meter> getMeters() {
+        return new ArrayList<>(new TreeMap<>(meters).values());
+    }
+
+    private static String id(String name, String... tags) {
+        return name + tags(tags);
+    }
+
+    private static Map<String, String> tags(String... tags) {
+        if (tags.length % 2 != 0) {
+            throw new IllegalArgumentException("Tags must be key, value pairs: " + Arrays.toString(tags));
+        }
+        Map<String, String> result = new TreeMap<>();
+        for (int i = 0; i < tags.length; i += 2) {
+            result.put(tags[i], tags[i + 1]);
+        }
+        return result;
+    }
+
+    public String toString() {
+        StringBuilder result = new StringBuilder("Métricas:");
+        for (Meter meter : getMeters()) {
+            result.append("\n  ").append(meter);
+        }
+        return result.toString();
+    }
+
+    public abstract static class Meter {
+        public final String name;
+        public final Map<String, String> tags;
+
+        Meter(String name, Map<String, String> tags) {
+            this.name = name;
+            this.tags = tags;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("name", name);
+            result.put("tags", tags);
+            return result;
+        }
+    }
+
+    public static class Counter extends Meter {
+        private final LongAdder count = new LongAdder();
+
+        Counter(String name, Map<String, String> tags) {
+            super(name, tags);
+        }
+
+        public void increment(long amount) {
+            count.add(amount);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        @Override
+        public Map<String, Object> toMap() {
+            Map<String, Object> result = super.toMap();
+            result.put("count", count());
+            return result;
+        }
+
+        public String toString() {
+            return String.format("%s%s %d", name, tags, count());
+        }
+    }
+
+    public static class Timer extends Meter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAccumulator maxWallNanos = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator peakHeapBytes = new LongAccumulator(Math::max, 0);
+
+        Timer(String name, Map<String, String> tags) {
+            super(name, tags);
+        }
+
+        public void record(StageMetrics metrics) {
+            count.increment();
+            wallNanos.add(metrics.wallNanos);
+            cpuNanos.add(metrics.cpuNanos);
+            allocatedBytes.add(metrics.allocatedBytes);
+            maxWallNanos.accumulate(metrics.wallNanos);
+            peakHeapBytes.accumulate(metrics.peakHeapBytes);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalWallNanos() {
+            return wallNanos.sum();
+        }
+
+        public long totalCpuNanos() {
+            return cpuNanos.sum();
+        }
+
+        public long totalAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        public long maxWallNanos() {
+            return maxWallNanos.get();
+        }
+
+        public long peakHeapBytes() {
+            return peakHeapBytes.get();
+        }
+
+        @Override
+        public Map<String, Object> toMap() {
+            Map<String, Object> result = super.toMap();
+            result.put("count", count());
+            result.put("wallNanos", totalWallNanos());
+            result.put("maxWallNanos", maxWallNanos());
+            result.put("cpuNanos", totalCpuNanos());
+            result.put("allocatedBytes", totalAllocatedBytes());
+            result.put("peakHeapBytes", peakHeapBytes());
+            return result;
+        }
+
+        public String toString() {
+            return String.format("%s%s %d vezes, %.1f ms (máx. %.1f ms), cpu %.1f ms, %.1f MB alocados, pico de heap %.1f MB",
+                    name, tags, count(), totalWallNanos() / 1e6, maxWallNanos() / 1e6, totalCpuNanos() / 1e6,
+                    totalAllocatedBytes() / 1048576.0, peakHeapBytes() / 1048576.0);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package opennlp;
+
+import opennlp.tools.namefind.TokenNameFinderModel;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Trained models on disk, one {@code <fingerprint>.bin} file per {@link ModelFingerprint}. A model is
+ * written to a temporary file and moved into place atomically, so a crashed or concurrent run never
+ * sees a partial file. Reading a model touches its modification time, and the least recently used
+ * models are deleted once the cache holds more than {@code maxEntries} files or {@code maxBytes} bytes.
+ * A file that cannot be read as a model is deleted and counts as a miss.
+ */
+public class ModelCache {
+
+    private static final String SUFFIX = ".bin";
+
+    public interface Trainer {
+        TokenNameFinderModel train() throws IOException;
+    }
+
+    private final File directory;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Map<String, Lock> locks = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ModelCache(File directory, int maxEntries, long maxBytes) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("maxEntries and maxBytes must be positive");
+        }
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Directory from {@code ner.models.cache} (default: {@code ner-models} in the temp directory), size
+     * limits from {@code ner.models.maxEntries} (default: 16) and {@code ner.models.maxMb} (default: 2048).
+     */
+    public static ModelCache fromSystemProperties() {
+        File directory = new File(System.getProperty("ner.models.cache", new File(System.getProperty("java.io.tmpdir"), "ner-models").getPath()));
+        return new ModelCache(directory, Integer.getInteger("ner.models.maxEntries", 16), Long.getLong("ner.models.maxMb", 2048) << 20);
+    }
+
+    /**
+     * Loads the model cached under {@code fingerprint}, or trains and caches it. Concurrent callers asking
+     * for the same fingerprint wait for a single training.
+     */
+    public TokenNameFinderModel getOrTrain(String fingerprint, Trainer trainer) throws IOException {
+        Lock lock = locks.compute(fingerprint, (key, current) -> {
+            Lock acquired = current == null ? new Lock() : current;
+            acquired.users++;
+            return acquired;
+        });
+        try {
+            synchronized (lock) {
+                TokenNameFinderModel model = get(fingerprint);
+                if (model == null) {
+                    misses.increment();
+                    model = trainer.train();
+                    put(fingerprint, model);
+                } else {
+                    hits.increment();
+                }
+                return model;
+            }
+        } finally {
+            locks.computeIfPresent(fingerprint, (key, current) -> --current.users == 0 ? null : current);
+        }
+    }
+
+    /**
+     * The model cached under {@code fingerprint}, or {@code null} if there is none or its file is corrupt,
+     * in which case the file is deleted.
+     */
+    public TokenNameFinderModel get(String fingerprint) throws IOException {
+        File file = file(fingerprint);
+        if (!file.isFile()) {
+            return null;
+        }
+        TokenNameFinderModel model;
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            model = new TokenNameFinderModel(in);
+        } catch (IOException | RuntimeException e) {
+            // OpenNLP 1.5.3 reports some malformed archives, e.g. one without a manifest, as unchecked exceptions
+            System.err.println("Modelo corrompido em " + file + ", descartado: " + e.getMessage());
+            Files.deleteIfExists(file.toPath());
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        return model;
+    }
+
+    public void put(String fingerprint, TokenNameFinderModel model) throws IOException {
+        Files.createDirectories(directory.toPath());
+        File tmp = File.createTempFile("model-" + fingerprint, ".tmp", directory);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp.toPath()))) {
+                model.serialize(out);
+            }
+            Files.move(tmp.toPath(), file(fingerprint).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        evict();
+    }
+
+    private synchronized void evict() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+        long bytes = 0;
+        for (int i = 0; i < files.length; i++) {
+            bytes += files[i].length();
+            if (i > 0 && (i >= maxEntries || bytes > maxBytes)) {
+                files[i].delete();
+            }
+        }
+    }
+
+    /**
+     * Serializes trainings of one fingerprint; removed from {@code locks} once no caller uses it.
+     */
+    private static class Lock {
+        int users;
+    }
+
+    private File file(String fingerprint) {
+        return new File(directory, fingerprint + SUFFIX);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public String toString() {
+        return String.format("Model cache %s: %d hits, %d misses", directory, getHits(), getMisses());
+    }
+}
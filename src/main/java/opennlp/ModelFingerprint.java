@@ -0,0 +1,128 @@
+package opennlp;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SHA-256 over everything that determines a trained model: the base corpus content, the id and text of
+ * every training profile (in id order) and the training parameters. Two runs with the same fingerprint
+ * train the same model.
+ */
+public class ModelFingerprint {
+
+    private static final Map<String, String> CORPUS_HASHES = new ConcurrentHashMap<>();
+
+    private final MessageDigest digest;
+
+    public ModelFingerprint() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds the content hash of a corpus file. The hash is remembered per path, length and modification time,
+     * so later steps do not read the file again.
+     */
+    public ModelFingerprint corpus(File corpus) throws IOException {
+        String key = corpus.getCanonicalPath() + '|' + corpus.length() + '|' + corpus.lastModified();
+        String hash = CORPUS_HASHES.get(key);
+        if (hash == null) {
+            hash = hash(corpus);
+            CORPUS_HASHES.put(key, hash);
+        }
+        return add("corpus", hash);
+    }
+
+    public ModelFingerprint profiles(Collection<Profile> profiles) {
+        List<Profile> sorted = new ArrayList<>(profiles);
+        sorted.sort(Comparator.comparing(profile -> profile.id));
+        add("profiles", String.valueOf(sorted.size()));
+        for (Profile profile : sorted) {
+            add(profile.id, profile.data);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the gold entities of every profile (in id order), e.g. for a {@link Gazetteer} built from them.
+     */
+    public ModelFingerprint golden(Collection<Profile> profiles) {
+        List<Profile> sorted = new ArrayList<>(profiles);
+        sorted.sort(Comparator.comparing(profile -> profile.id));
+        for (Profile profile : sorted) {
+            List<String> entities = new ArrayList<>();
+            for (NER ner : profile.goldenNERS) {
+                entities.add(ner.type + '\t' + ner.text);
+            }
+            entities.sort(null);
+            add(profile.id, String.join("\n", entities));
+        }
+        return this;
+    }
+
+    public ModelFingerprint parameters(Map<String, String> parameters) {
+        for (Map.Entry<String, String> parameter : new TreeMap<>(parameters).entrySet()) {
+            add(parameter.getKey(), parameter.getValue());
+        }
+        return this;
+    }
+
+    public ModelFingerprint add(String key, String value) {
+        update(key);
+        update(value == null ? "\u0000" : value);
+        return this;
+    }
+
+    private void update(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    /**
+     * The hex digest. The fingerprint cannot be extended afterwards.
+     */
+    public String build() {
+        return hex(digest.digest());
+    }
+
+    private static String hash(File file) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            MessageDigest fileDigest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[1 << 16];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                fileDigest.update(buffer, 0, read);
+            }
+            return hex(fileDigest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder result = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            result.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return result.toString();
+    }
+}
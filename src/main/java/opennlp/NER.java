@@ -0,0 +1,47 @@
+package opennlp;
+
+public class NER {
+    String text;
+    String type;
+    int start;
+    int end;
+
+    public String toString() {
+        return String.format("[%d..%d) %s => %s", start, end, type, text);
+    }
+
+    public NER(String text, int start, int end, String type) {
+        this.text = text;
+        this.start = start;
+        this.end = end;
+        this.type = type;
+    }
+
+    /**
+     * The entity packed as an {@link EntitySet} key.
+     */
+    public long key() {
+        return EntitySet.key(start, end, EntityTypes.id(type));
+    }
+
+    /**
+     * Entities are equal if start, end and type agree, the same fields as {@link #key()}.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NER ner = (NER) o;
+        return start == ner.start &&
+                end == ner.end &&
+                (type == null ? ner.type == null : type.equals(ner.type));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = start;
+        result = 31 * result + end;
+        result = 31 * result + (type == null ? 0 : type.hashCode());
+        return result;
+    }
+}
@@ -0,0 +1,169 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.Span;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tags profiles in parallel. The profile collection is split into shards on a fork-join pool
+ * and every worker thread owns its own {@link NameFinderME} over the shared, read-only model.
+ * Adaptive data is cleared after each profile, so the result does not depend on which worker
+ * tagged which profile and matches {@link #tag(Profile, NameFinderME, TokenizerService)} run in sequence.
+ */
+public class NerInferenceEngine implements AutoCloseable {
+
+    public static final int DEFAULT_SHARD_SIZE = 16;
+
+    /**
+     * Tokens of context the model reads on each side of the text between two gazetteer matches, the
+     * width of the default feature windows.
+     */
+    public static final int CONTEXT = 2;
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<NameFinderME> finders;
+    private final TokenizerService tokenizer;
+    private final Gazetteer gazetteer;
+    private final int shardSize;
+
+    public NerInferenceEngine(TokenNameFinderModel model) {
+        this(model, Runtime.getRuntime().availableProcessors(), DEFAULT_SHARD_SIZE);
+    }
+
+    public NerInferenceEngine(TokenNameFinderModel model, int parallelism, int shardSize) {
+        this(model, FeaturePipeline.defaults(), parallelism, shardSize);
+    }
+
+    /**
+     * {@code pipeline} must be the one the model was trained with.
+     */
+    public NerInferenceEngine(TokenNameFinderModel model, FeaturePipeline pipeline, int parallelism, int shardSize) {
+        this(model, pipeline, null, parallelism, shardSize);
+    }
+
+    /**
+     * With a {@code gazetteer}, its matches are tagged first and the model only reads the text between them.
+     */
+    public NerInferenceEngine(TokenNameFinderModel model, FeaturePipeline pipeline, Gazetteer gazetteer, int parallelism, int shardSize) {
+        if (parallelism < 1 || shardSize < 1) {
+            throw new IllegalArgumentException("parallelism and shardSize must be positive");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.finders = ThreadLocal.withInitial(() -> new NameFinderME(model, pipeline.create(), NameFinderME.DEFAULT_BEAM_SIZE));
+        this.tokenizer = TokenizerService.get();
+        this.gazetteer = gazetteer;
+        this.shardSize = shardSize;
+    }
+
+    public void identify(Collection<Profile> profiles) {
+        List<Profile> list = profiles instanceof List ? (List<Profile>) profiles : new ArrayList<>(profiles);
+        pool.invoke(new TagShard(list, 0, list.size()));
+    }
+
+    /**
+     * Tags a single profile, treating it as one document.
+     */
+    public static void tag(Profile profile, NameFinderME finder, TokenizerService tokenizer) {
+        tag(profile, finder, tokenizer, null);
+    }
+
+    /**
+     * Tags a single profile, keeping the {@code gazetteer} matches (if any) in {@link Profile#gazetteerNERS}
+     * as well. The model only reads the runs of tokens between matches, plus {@link #CONTEXT} tokens on
+     * each side for its feature windows, so the more of the text the gazetteer covers, the less the model
+     * has to decode. Runs without a letter or digit are skipped.
+     */
+    public static void tag(Profile profile, NameFinderME finder, TokenizerService tokenizer, Gazetteer gazetteer) {
+        String[] tokens = tokenizer.tokenize(profile.data);
+        List<NER> matches = gazetteer == null ? Collections.<NER>emptyList() : gazetteer.match(tokens);
+        if (matches.isEmpty()) {
+            find(profile, finder, tokens, 0, tokens.length);
+        } else {
+            int start = 0;
+            for (NER match : matches) {
+                find(profile, finder, tokens, start, match.start);
+                profile.foundNERS.add(match);
+                profile.gazetteerNERS.add(match);
+                start = match.end;
+            }
+            find(profile, finder, tokens, start, tokens.length);
+        }
+        finder.clearAdaptiveData();
+    }
+
+    private static void find(Profile profile, NameFinderME finder, String[] tokens, int from, int to) {
+        if (from == 0 && to == tokens.length) {
+            addSpans(profile, finder.find(tokens), tokens, 0, from, to);
+        } else if (hasWord(tokens, from, to)) {
+            int offset = Math.max(0, from - CONTEXT);
+            String[] run = Arrays.copyOfRange(tokens, offset, Math.min(tokens.length, to + CONTEXT));
+            addSpans(profile, finder.find(run), run, offset, from, to);
+        }
+    }
+
+    /**
+     * Adds the spans found in {@code tokens}, which start at {@code offset} in the profile, that lie within {@code [from, to)}.
+     */
+    private static void addSpans(Profile profile, Span[] ners, String[] tokens, int offset, int from, int to) {
+        for (Span ner : ners) {
+            int start = offset + ner.getStart();
+            int end = offset + ner.getEnd();
+            if (start >= from && end <= to) {
+                String text = String.join(" ", Arrays.copyOfRange(tokens, ner.getStart(), ner.getEnd()));
+                profile.foundNERS.add(new NER(text, start, end, ner.getType()));
+            }
+        }
+    }
+
+    private static boolean hasWord(String[] tokens, int from, int to) {
+        for (int i = from; i < to; i++) {
+            String token = tokens[i];
+            for (int j = 0; j < token.length(); j++) {
+                if (Character.isLetterOrDigit(token.charAt(j))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private class TagShard extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Profile> profiles;
+        private final int from;
+        private final int to;
+
+        TagShard(List<Profile> profiles, int from, int to) {
+            this.profiles = profiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= shardSize) {
+                NameFinderME finder = finders.get();
+                for (int i = from; i < to; i++) {
+                    tag(profiles.get(i), finder, tokenizer, gazetteer);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TagShard(profiles, from, middle), new TagShard(profiles, middle, to));
+        }
+    }
+}
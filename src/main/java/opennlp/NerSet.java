@@ -0,0 +1,107 @@
+package opennlp;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The entities of a profile, kept as the sorted packed {@link EntitySet} keys plus the text of each entity.
+ * Adding an entity inserts its key in order, so {@link Scorer} merges two sets straight from the key arrays
+ * without building or sorting anything. Iterating creates the {@link NER} objects on the fly.
+ *
+ * Like {@link NER#equals(Object)}, two entities are the same if start, end and type agree.
+ */
+public class NerSet extends AbstractSet<NER> {
+
+    private long[] keys = new long[8];
+    private String[] texts = new String[8];
+    private int size;
+
+    @Override
+    public boolean add(NER ner) {
+        long key = ner.key();
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            texts = Arrays.copyOf(texts, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(texts, index, texts, index + 1, size - index);
+        keys[index] = key;
+        texts[index] = ner.text;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof NER && Arrays.binarySearch(keys, 0, size, ((NER) o).key()) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(texts, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * The packed key of the {@code index}-th entity in key order.
+     */
+    public long key(int index) {
+        return keys[index];
+    }
+
+    /**
+     * The sorted keys; only the first {@link #size()} are entities.
+     */
+    long[] keys() {
+        return keys;
+    }
+
+    @Override
+    public Iterator<NER> iterator() {
+        return new Iterator<NER>() {
+            private int next;
+            private boolean removable;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public NER next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                long key = keys[next];
+                NER ner = new NER(texts[next], EntitySet.start(key), EntitySet.end(key), EntityTypes.name(EntitySet.type(key)));
+                next++;
+                removable = true;
+                return ner;
+            }
+
+            @Override
+            public void remove() {
+                if (!removable) {
+                    throw new IllegalStateException();
+                }
+                next--;
+                System.arraycopy(keys, next + 1, keys, next, size - next - 1);
+                System.arraycopy(texts, next + 1, texts, next, size - next - 1);
+                texts[--size] = null;
+                removable = false;
+            }
+        };
+    }
+}
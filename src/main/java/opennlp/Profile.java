@@ -0,0 +1,21 @@
+package opennlp;
+
+import java.util.stream.Collectors;
+
+public class Profile {
+    String id;
+    String data;
+    NerSet foundNERS = new NerSet();
+    NerSet goldenNERS = new NerSet();
+    NerSet gazetteerNERS = new NerSet();
+
+    public Profile(String id, String data) {
+        this.id = id;
+        this.data = data;
+    }
+
+    public String toString() {
+        String prof = "Researcher: %s \n Golden NER: \n %s";
+        return String.format(prof, this.id, this.goldenNERS.stream().map(NER::toString).collect(Collectors.joining("\n")));
+    }
+}
@@ -0,0 +1,23 @@
+package opennlp;
+
+/**
+ * One row of {@code lattes_ner}: the profile text, its manual annotation and the curriculum step
+ * ({@code passo}) in which it becomes training data, or {@code null} if it is never annotated.
+ */
+public class ProfileRecord {
+    final String id;
+    final String data;
+    final String golden;
+    final Integer passo;
+
+    public ProfileRecord(String id, String data, String golden, Integer passo) {
+        this.id = id;
+        this.data = data;
+        this.golden = golden;
+        this.passo = passo;
+    }
+
+    public String toString() {
+        return String.format("Researcher: %s (passo %s)", id, passo);
+    }
+}
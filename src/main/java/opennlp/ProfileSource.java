@@ -0,0 +1,12 @@
+package opennlp;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Streams the rows of {@code lattes_ner} one at a time.
+ */
+public interface ProfileSource {
+
+    void read(Consumer<ProfileRecord> consumer) throws IOException;
+}
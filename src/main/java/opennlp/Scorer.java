@@ -0,0 +1,126 @@
+package opennlp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counts true positives, false positives and missing entities per type by merging the sorted keys of
+ * the found and gold entities, either {@link NerSet}s or {@link EntitySet}s. An entity matches only if
+ * start, end and type all agree.
+ */
+public class Scorer {
+
+    private final long[] truePositives = new long[EntityTypes.MAX_TYPES];
+    private final long[] falsePositives = new long[EntityTypes.MAX_TYPES];
+    private final long[] falseNegatives = new long[EntityTypes.MAX_TYPES];
+
+    public void score(Profile found, Profile golden) {
+        score(found.foundNERS, golden.goldenNERS);
+    }
+
+    public void score(NerSet found, NerSet golden) {
+        score(found.keys(), found.size(), golden.keys(), golden.size());
+    }
+
+    public void score(EntitySet found, EntitySet golden) {
+        score(found.keys(), found.size(), golden.keys(), golden.size());
+    }
+
+    private void score(long[] found, int foundSize, long[] golden, int goldenSize) {
+        int i = 0;
+        int j = 0;
+        while (i < foundSize && j < goldenSize) {
+            long f = found[i];
+            long g = golden[j];
+            if (f == g) {
+                truePositives[EntitySet.type(f)]++;
+                i++;
+                j++;
+            } else if (f < g) {
+                falsePositives[EntitySet.type(f)]++;
+                i++;
+            } else {
+                falseNegatives[EntitySet.type(g)]++;
+                j++;
+            }
+        }
+        for (; i < foundSize; i++) {
+            falsePositives[EntitySet.type(found[i])]++;
+        }
+        for (; j < goldenSize; j++) {
+            falseNegatives[EntitySet.type(golden[j])]++;
+        }
+    }
+
+    public void merge(Scorer other) {
+        for (int type = 0; type < EntityTypes.MAX_TYPES; type++) {
+            truePositives[type] += other.truePositives[type];
+            falsePositives[type] += other.falsePositives[type];
+            falseNegatives[type] += other.falseNegatives[type];
+        }
+    }
+
+    public TypeScore total() {
+        return new TypeScore("TOTAL", sum(truePositives), sum(falsePositives), sum(falseNegatives));
+    }
+
+    public TypeScore score(String type) {
+        int id = EntityTypes.id(type);
+        return new TypeScore(type, truePositives[id], falsePositives[id], falseNegatives[id]);
+    }
+
+    /**
+     * The four Lattes types, followed by any other type that was found or expected.
+     */
+    public List<TypeScore> byType() {
+        List<TypeScore> result = new ArrayList<>();
+        for (int id = 0; id < EntityTypes.count(); id++) {
+            if (id < 4 || truePositives[id] + falsePositives[id] + falseNegatives[id] > 0) {
+                result.add(new TypeScore(EntityTypes.name(id), truePositives[id], falsePositives[id], falseNegatives[id]));
+            }
+        }
+        return result;
+    }
+
+    private static long sum(long[] values) {
+        return Arrays.stream(values).sum();
+    }
+
+    public static class TypeScore {
+        public final String type;
+        public final long truePositives;
+        public final long falsePositives;
+        public final long falseNegatives;
+
+        TypeScore(String type, long truePositives, long falsePositives, long falseNegatives) {
+            this.type = type;
+            this.truePositives = truePositives;
+            this.falsePositives = falsePositives;
+            this.falseNegatives = falseNegatives;
+        }
+
+        public double precision() {
+            return ratio(truePositives, truePositives + falsePositives);
+        }
+
+        public double recall() {
+            return ratio(truePositives, truePositives + falseNegatives);
+        }
+
+        public double f1() {
+            double p = precision();
+            double r = recall();
+            return p + r == 0 ? 0 : 2 * p * r / (p + r);
+        }
+
+        private static double ratio(long part, long whole) {
+            return whole == 0 ? 0 : (double) part / whole;
+        }
+
+        public String toString() {
+            return String.format("%-12s P=%.4f R=%.4f F1=%.4f (%d existentes, %d falsas, %d faltantes)",
+                    type, precision(), recall(), f1(), truePositives, falsePositives, falseNegatives);
+        }
+    }
+}
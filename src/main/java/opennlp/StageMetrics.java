@@ -0,0 +1,180 @@
+package opennlp;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.function.LongSupplier;
+
+/**
+ * What one run of a pipeline stage cost: wall time, CPU time, bytes allocated, heap, and the documents and
+ * tokens it processed.
+ *
+ * CPU time is the whole process's, so it includes worker pools such as the tagging pool. Allocation is
+ * summed over all threads: a sampler thread records each thread's allocated bytes every
+ * {@code ner.metrics.heapSampleMs} (default: 10) milliseconds and when any stage starts or stops, so a pool
+ * thread that exits within the stage only loses what it allocated after the last sample. Tokens come from
+ * a counter the caller passes in, e.g. {@link TokenizerService#getTokenCount()}. The peak heap is the
+ * highest used heap the same sampler saw while the stage ran, so shorter spikes can be missed. Nothing is
+ * reset, but when steps run concurrently, overlapping stages share CPU time, allocation, tokens and peak heap.
+ */
+public class StageMetrics {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final OperatingSystemMXBean OS = ManagementFactory.getOperatingSystemMXBean();
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final long SAMPLE_MILLIS = Long.getLong("ner.metrics.heapSampleMs", 10);
+    private static final Set<StageMetrics> RUNNING = ConcurrentHashMap.newKeySet();
+    private static ScheduledExecutorService sampler;
+
+    public final String stage;
+    public long wallNanos;
+    public long cpuNanos;
+    public long allocatedBytes;
+    public long heapUsedBytes;
+    public long peakHeapBytes;
+    public long documents;
+    public long tokens;
+
+    private long startNanos;
+    private long startCpu;
+    private final Map<Long, Long> startAllocated = new HashMap<>();
+    private final Map<Long, Long> lastAllocated = new HashMap<>();
+    private long startTokens;
+    private final LongSupplier tokenCounter;
+    private final LongAccumulator peakHeap = new LongAccumulator(Math::max, 0);
+
+    private StageMetrics(String stage, LongSupplier tokenCounter) {
+        this.stage = stage;
+        this.tokenCounter = tokenCounter;
+    }
+
+    /**
+     * Starts a stage that does not count tokens.
+     */
+    public static StageMetrics start(String stage) {
+        return start(stage, () -> 0);
+    }
+
+    public static StageMetrics start(String stage, LongSupplier tokenCounter) {
+        StageMetrics metrics = new StageMetrics(stage, tokenCounter);
+        startSampler();
+        metrics.startTokens = tokenCounter.getAsLong();
+        long[] ids = THREADS.getAllThreadIds();
+        long[] bytes = allocated(ids);
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                metrics.startAllocated.put(ids[i], bytes[i]);
+            }
+        }
+        RUNNING.add(metrics);
+        sample();
+        metrics.startCpu = cpu();
+        metrics.startNanos = System.nanoTime();
+        return metrics;
+    }
+
+    public StageMetrics stop() {
+        wallNanos = System.nanoTime() - startNanos;
+        cpuNanos = cpu() - startCpu;
+        tokens = tokenCounter.getAsLong() - startTokens;
+        sample();
+        RUNNING.remove(this);
+        allocatedBytes = allocated();
+        heapUsedBytes = MEMORY.getHeapMemoryUsage().getUsed();
+        peakHeapBytes = peakHeap.get();
+        return this;
+    }
+
+    private static synchronized void startSampler() {
+        if (sampler == null) {
+            sampler = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "ner-heap-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleAtFixedRate(StageMetrics::sample, SAMPLE_MILLIS, SAMPLE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void sample() {
+        if (RUNNING.isEmpty()) {
+            return;
+        }
+        long used = MEMORY.getHeapMemoryUsage().getUsed();
+        long[] ids = THREADS.getAllThreadIds();
+        long[] bytes = allocated(ids);
+        for (StageMetrics metrics : RUNNING) {
+            metrics.peakHeap.accumulate(used);
+            metrics.record(ids, bytes);
+        }
+    }
+
+    private synchronized void record(long[] ids, long[] bytes) {
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                lastAllocated.put(ids[i], bytes[i]);
+            }
+        }
+    }
+
+    /**
+     * Bytes each thread allocated since the stage started, or since the thread started if it is newer.
+     */
+    private synchronized long allocated() {
+        long total = 0;
+        for (Map.Entry<Long, Long> thread : lastAllocated.entrySet()) {
+            total += Math.max(0, thread.getValue() - startAllocated.getOrDefault(thread.getKey(), 0L));
+        }
+        return total;
+    }
+
+    public double tokensPerSecond() {
+        return wallNanos == 0 ? 0 : tokens * 1e9 / wallNanos;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("stage", stage);
+        result.put("wallNanos", wallNanos);
+        result.put("cpuNanos", cpuNanos);
+        result.put("allocatedBytes", allocatedBytes);
+        result.put("heapUsedBytes", heapUsedBytes);
+        result.put("peakHeapBytes", peakHeapBytes);
+        result.put("documents", documents);
+        result.put("tokens", tokens);
+        result.put("tokensPerSecond", tokensPerSecond());
+        return result;
+    }
+
+    private static long cpu() {
+        return OS instanceof com.sun.management.OperatingSystemMXBean ? ((com.sun.management.OperatingSystemMXBean) OS).getProcessCpuTime() : -1;
+    }
+
+    /**
+     * Allocated bytes of each thread in {@code ids}, -1 for threads that are gone or if the JVM cannot tell.
+     */
+    private static long[] allocated(long[] ids) {
+        if (THREADS instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported()) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(ids);
+        }
+        long[] bytes = new long[ids.length];
+        Arrays.fill(bytes, -1);
+        return bytes;
+    }
+
+    public String toString() {
+        return String.format("%-10s %10.1f ms, cpu %10.1f ms, %8.1f MB alocados, pico de heap %8.1f MB, %d documentos, %d tokens",
+                stage, wallNanos / 1e6, cpuNanos / 1e6, allocatedBytes / 1048576.0, peakHeapBytes / 1048576.0, documents, tokens);
+    }
+}
@@ -0,0 +1,98 @@
+package opennlp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Outcome of one curriculum step: profile counts, time spent per stage and the entity scores.
+ */
+public class StepResult {
+    public final int passo;
+    public final Map<String, Long> stageNanos = new LinkedHashMap<>();
+    public final List<StageMetrics> stages = new ArrayList<>();
+    public String model;
+    public int searchProfiles;
+    public int testProfiles;
+    public int trainProfiles;
+    public int taggedProfiles;
+    public Scorer scorer = new Scorer();
+    /**
+     * Scores of the gazetteer matches alone, if a gazetteer was used. Only their precision is meaningful.
+     */
+    public Scorer gazetteer;
+    public Throwable failure;
+    private final LongSupplier tokenCounter;
+
+    public StepResult(int passo) {
+        this(passo, () -> 0);
+    }
+
+    /**
+     * {@code tokenCounter} counts the tokens of every stage, e.g. {@link TokenizerService#getTokenCount()}.
+     */
+    public StepResult(int passo, LongSupplier tokenCounter) {
+        this.passo = passo;
+        this.tokenCounter = tokenCounter;
+    }
+
+    /**
+     * Runs {@code stage} and records its {@link StageMetrics} under {@code name}.
+     */
+    public <T> T time(String name, StageCall<T> stage) throws Exception {
+        StageMetrics metrics = StageMetrics.start(name, tokenCounter);
+        try {
+            return stage.call();
+        } finally {
+            metrics.stop();
+            stageNanos.merge(name, metrics.wallNanos, Long::sum);
+            stages.add(metrics);
+        }
+    }
+
+    /**
+     * The last run of stage {@code name}, e.g. to set how many documents it processed.
+     */
+    public StageMetrics stage(String name) {
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            if (stages.get(i).stage.equals(name)) {
+                return stages.get(i);
+            }
+        }
+        throw new IllegalArgumentException("No stage " + name);
+    }
+
+    public interface StageCall<T> {
+        T call() throws Exception;
+    }
+
+    public long totalNanos() {
+        return stageNanos.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        if (failure != null) {
+            return result.append(String.format("O passo %d falhou: %s", passo, failure)).toString();
+        }
+        Scorer.TypeScore total = scorer.total();
+        result.append(String.format("O passo %d houveram %d falsas, %d existentes, %d faltantes e %d NEs no total",
+                passo, total.falsePositives, total.truePositives, total.falseNegatives, total.truePositives + total.falseNegatives));
+        result.append(String.format("%n  %d perfis de busca (%d etiquetados), %d de teste, %d de treino",
+                searchProfiles, taggedProfiles, testProfiles, trainProfiles));
+        for (StageMetrics stage : stages) {
+            result.append("\n  ").append(stage);
+        }
+        if (gazetteer != null) {
+            Scorer.TypeScore matches = gazetteer.total();
+            result.append(String.format("%n  gazetteer: P=%.4f (%d existentes, %d falsas)",
+                    matches.precision(), matches.truePositives, matches.falsePositives));
+        }
+        for (Scorer.TypeScore score : scorer.byType()) {
+            result.append("\n  ").append(score);
+        }
+        return result.append("\n  ").append(total).toString();
+    }
+}
@@ -0,0 +1,329 @@
+package opennlp;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.TokenNameFinderModel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads a trained model once and tags profile text sent to {@code POST /tag}. The answer is one
+ * {@link NER#toString()} line per entity. {@code GET /stats} reports request counts and latency percentiles.
+ *
+ * Requests wait in a bounded queue. A dispatcher groups them into micro-batches of up to {@code batchSize},
+ * waiting at most {@code maxDelayMillis} for a batch to fill. Each batch goes to a fixed pool of taggers, and
+ * every tagger thread owns its own {@link NameFinderME}. When the queue is full the request is rejected
+ * at once with 503, so callers back off instead of piling up latency. A request that is not tagged within
+ * {@code timeoutMillis} gets 504.
+ */
+public class TaggingService implements AutoCloseable {
+
+    private static final int LATENCY_SAMPLES = 8192;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+
+    private final TokenizerService tokenizer = TokenizerService.get();
+    private final ThreadLocal<NameFinderME> finders;
+    private final BlockingQueue<Request> queue;
+    private final ThreadPoolExecutor taggers;
+    private final Thread dispatcher;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long timeoutMillis;
+    private final Object lock = new Object();
+    private HttpServer server;
+    private volatile boolean running = true;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_SAMPLES);
+    private final AtomicLong latencyIndex = new AtomicLong();
+
+    public TaggingService(TokenNameFinderModel model, int threads, int batchSize, long maxDelayMillis, int queueCapacity) {
+        this(model, FeaturePipeline.defaults(), threads, batchSize, maxDelayMillis, queueCapacity);
+    }
+
+    public TaggingService(TokenNameFinderModel model, FeaturePipeline pipeline, int threads, int batchSize, long maxDelayMillis, int queueCapacity) {
+        this(model, pipeline, threads, batchSize, maxDelayMillis, queueCapacity, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public TaggingService(TokenNameFinderModel model, FeaturePipeline pipeline, int threads, int batchSize, long maxDelayMillis, int queueCapacity,
+                          long timeoutMillis) {
+        this.finders = ThreadLocal.withInitial(() -> new NameFinderME(model, pipeline.create(), NameFinderME.DEFAULT_BEAM_SIZE));
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.timeoutMillis = timeoutMillis;
+        // A rejected batch runs on the dispatcher, also after shutdown, so its requests are always completed.
+        this.taggers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), (task, executor) -> task.run());
+        this.dispatcher = new Thread(this::dispatch, "ner-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * {@code java opennlp.TaggingService <model.bin>} with {@code ner.service.port} (8080), {@code ner.service.threads}
+     * (available processors), {@code ner.service.batchSize} (16), {@code ner.service.maxDelayMs} (2),
+     * {@code ner.service.queue} (1024), {@code ner.service.timeoutMs} (5000) and the model's {@code ner.features} pipeline.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: TaggingService <model.bin>");
+            System.exit(1);
+        }
+        TaggingService service = new TaggingService(new TokenNameFinderModel(new File(args[0])), FeaturePipeline.fromSystemProperties(),
+                Integer.getInteger("ner.service.threads", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("ner.service.batchSize", 16),
+                Long.getLong("ner.service.maxDelayMs", 2),
+                Integer.getInteger("ner.service.queue", 1024),
+                Long.getLong("ner.service.timeoutMs", DEFAULT_TIMEOUT_MILLIS));
+        service.start(Integer.getInteger("ner.service.port", 8080));
+        Runtime.getRuntime().addShutdownHook(new Thread(service::close));
+        System.out.println("Tagging service listening on port " + service.getPort());
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/tag", this::handleTag);
+        server.createContext("/stats", this::handleStats);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Queues {@code text} for tagging.
+     *
+     * @throws RejectedExecutionException if the queue is full or the service is closed
+     */
+    public CompletableFuture<List<NER>> tag(String text) {
+        Request request = new Request(text);
+        synchronized (lock) {
+            if (!running || !queue.offer(request)) {
+                rejected.increment();
+                throw new RejectedExecutionException(running ? "Tagging queue is full" : "Tagging service is closed");
+            }
+        }
+        requests.increment();
+        return request.result;
+    }
+
+    private void dispatch() {
+        List<Request> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Request first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() == batchSize || wait <= 0) {
+                        break;
+                    }
+                    Request next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                List<Request> work = new ArrayList<>(batch);
+                batch.clear();
+                batches.increment();
+                taggers.execute(() -> tag(work));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void tag(List<Request> batch) {
+        try {
+            NameFinderME finder = finders.get();
+            for (Request request : batch) {
+                if (request.result.isDone()) {
+                    continue;
+                }
+                try {
+                    Profile profile = new Profile(null, request.text);
+                    NerInferenceEngine.tag(profile, finder, tokenizer);
+                    List<NER> ners = new ArrayList<>(profile.foundNERS);
+                    ners.sort((a, b) -> a.start != b.start ? Integer.compare(a.start, b.start) : Integer.compare(a.end, b.end));
+                    recordLatency(System.nanoTime() - request.created);
+                    request.result.complete(ners);
+                } catch (RuntimeException e) {
+                    finder.clearAdaptiveData();
+                    request.result.completeExceptionally(e);
+                }
+            }
+        } catch (Throwable e) {
+            fail(batch, e);
+            throw e;
+        } finally {
+            fail(batch, new IllegalStateException("Request was not tagged"));
+        }
+    }
+
+    /**
+     * Completes every request of {@code requests} that is not done yet with {@code cause}.
+     */
+    private static void fail(Collection<Request> requests, Throwable cause) {
+        for (Request request : requests) {
+            request.result.completeExceptionally(cause);
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        latencies.set((int) (latencyIndex.getAndIncrement() % LATENCY_SAMPLES), nanos);
+    }
+
+    /**
+     * Latency percentile in milliseconds over the most recent requests.
+     */
+    public double latencyPercentile(double percentile) {
+        int count = (int) Math.min(latencyIndex.get(), LATENCY_SAMPLES);
+        if (count == 0) {
+            return 0;
+        }
+        long[] values = new long[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = latencies.get(i);
+        }
+        Arrays.sort(values);
+        return values[(int) Math.min(count - 1, Math.ceil(percentile / 100 * count) - 1)] / 1e6;
+    }
+
+    private void handleTag(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "Use POST\n");
+                return;
+            }
+            String text;
+            try (InputStream in = exchange.getRequestBody()) {
+                text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            List<NER> ners;
+            CompletableFuture<List<NER>> result = null;
+            try {
+                result = tag(text);
+                ners = result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 503, e.getMessage() + "\n");
+                return;
+            } catch (TimeoutException e) {
+                result.cancel(false);
+                timedOut.increment();
+                respond(exchange, 504, "Not tagged within " + timeoutMillis + " ms\n");
+                return;
+            }
+            StringBuilder body = new StringBuilder();
+            for (NER ner : ners) {
+                body.append(ner).append('\n');
+            }
+            respond(exchange, 200, body.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "Interrupted\n");
+        } catch (ExecutionException e) {
+            respond(exchange, 500, e.getCause() + "\n");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try {
+            respond(exchange, 200, toString() + "\n");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            running = false;
+        }
+        if (server != null) {
+            server.stop(1);
+            ((ExecutorService) server.getExecutor()).shutdown();
+        }
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+            taggers.shutdown();
+            taggers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        taggers.shutdown();
+        List<Request> left = new ArrayList<>();
+        queue.drainTo(left);
+        fail(left, new RejectedExecutionException("Tagging service is closed"));
+    }
+
+    public String toString() {
+        return String.format("%d requests, %d rejected, %d timed out, %d batches, p50=%.2f ms, p99=%.2f ms",
+                getRequestCount(), rejected.sum(), timedOut.sum(), getBatchCount(), latencyPercentile(50), latencyPercentile(99));
+    }
+
+    private static class Request {
+        final String text;
+        final long created = System.nanoTime();
+        final CompletableFuture<List<NER>> result = new CompletableFuture<>();
+
+        Request(String text) {
+            this.text = text;
+        }
+    }
+}
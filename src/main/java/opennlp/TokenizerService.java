@@ -0,0 +1,118 @@
+package opennlp;
+
+import opennlp.tools.tokenize.TokenizerME;
+import opennlp.tools.tokenize.TokenizerModel;
+import opennlp.tools.util.Span;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads a tokenizer model once per JVM and hands out one {@link TokenizerME} per thread,
+ * since {@link TokenizerME} keeps per-call state and must not be shared between threads.
+ */
+public class TokenizerService {
+
+    public static final String DEFAULT_MODEL = "/pt-token.bin";
+
+    private static final Map<String, TokenizerService> INSTANCES = new ConcurrentHashMap<>();
+
+    private final String resource;
+    private final long loadTimeNanos;
+    private final ThreadLocal<TokenizerME> tokenizers;
+
+    private final LongAdder sentences = new LongAdder();
+    private final LongAdder tokens = new LongAdder();
+    private final LongAdder tokenizeNanos = new LongAdder();
+
+    private TokenizerService(String resource, TokenizerModel model, long loadTimeNanos) {
+        this.resource = resource;
+        this.loadTimeNanos = loadTimeNanos;
+        this.tokenizers = ThreadLocal.withInitial(() -> new TokenizerME(model));
+    }
+
+    public static TokenizerService get() {
+        return get(DEFAULT_MODEL);
+    }
+
+    public static TokenizerService get(String resource) {
+        return INSTANCES.computeIfAbsent(resource, TokenizerService::load);
+    }
+
+    private static TokenizerService load(String resource) {
+        long start = System.nanoTime();
+        try (InputStream in = TokenizerService.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Tokenizer model not found in classpath: " + resource);
+            }
+            TokenizerModel model = new TokenizerModel(in);
+            return new TokenizerService(resource, model, System.nanoTime() - start);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public String[] tokenize(String sentence) {
+        long start = System.nanoTime();
+        String[] result = tokenizers.get().tokenize(sentence);
+        record(1, result.length, System.nanoTime() - start);
+        return result;
+    }
+
+    public Span[] tokenizePos(String sentence) {
+        long start = System.nanoTime();
+        Span[] result = tokenizers.get().tokenizePos(sentence);
+        record(1, result.length, System.nanoTime() - start);
+        return result;
+    }
+
+    public List<String[]> tokenize(List<String> sentences) {
+        TokenizerME tokenizer = tokenizers.get();
+        List<String[]> result = new ArrayList<>(sentences.size());
+        long start = System.nanoTime();
+        int count = 0;
+        for (String sentence : sentences) {
+            String[] sentenceTokens = tokenizer.tokenize(sentence);
+            count += sentenceTokens.length;
+            result.add(sentenceTokens);
+        }
+        record(sentences.size(), count, System.nanoTime() - start);
+        return result;
+    }
+
+    private void record(int sentenceCount, int tokenCount, long nanos) {
+        sentences.add(sentenceCount);
+        tokens.add(tokenCount);
+        tokenizeNanos.add(nanos);
+    }
+
+    public double getLoadTimeMillis() {
+        return loadTimeNanos / 1_000_000d;
+    }
+
+    public long getSentenceCount() {
+        return sentences.sum();
+    }
+
+    public long getTokenCount() {
+        return tokens.sum();
+    }
+
+    /**
+     * Tokens per second of tokenizer time, summed over all threads.
+     */
+    public double getTokensPerSecond() {
+        long nanos = tokenizeNanos.sum();
+        return nanos == 0 ? 0 : tokens.sum() * 1_000_000_000d / nanos;
+    }
+
+    public String toString() {
+        return String.format("Tokenizer %s: loaded in %.1f ms, %d sentences, %d tokens, %.0f tokens/s",
+                resource, getLoadTimeMillis(), getSentenceCount(), getTokenCount(), getTokensPerSecond());
+    }
+}
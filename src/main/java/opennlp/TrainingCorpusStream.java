@@ -0,0 +1,153 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Chains several {@link NameSample} sources into one training stream without materializing them.
+ * Each source is opened only when the previous one is exhausted, so a corpus file is read line by line
+ * from disk and profiles are converted to name sample markup one at a time.
+ */
+public class TrainingCorpusStream implements ObjectStream<NameSample> {
+
+    public static final String DOCSTART = "--DOCSTART--";
+
+    private static final String[] PROFILE_TAGS = {"<PER>", "<LOCAL>", "<ORG>", "<MISC>", "</PER>", "</LOCAL>", "</ORG>", "</MISC>"};
+    private static final String[] SAMPLE_TAGS = {" <START:PESSOA> ", " <START:LOCAL> ", " <START:ORGANIZACAO> ", " <START:ABSTRACCAO> ", " <END> ", " <END> ", " <END> ", " <END> "};
+
+    public interface Source {
+        ObjectStream<NameSample> open() throws IOException;
+    }
+
+    private final List<Source> sources;
+    private int next;
+    private ObjectStream<NameSample> current;
+
+    public TrainingCorpusStream(Source... sources) {
+        this(Arrays.asList(sources));
+    }
+
+    public TrainingCorpusStream(List<Source> sources) {
+        this.sources = new ArrayList<>(sources);
+    }
+
+    /**
+     * A corpus file in OpenNLP name sample format followed by the given annotated profiles.
+     */
+    public static TrainingCorpusStream of(File corpus, Charset charset, Collection<Profile> profiles) {
+        return new TrainingCorpusStream(fromFile(corpus, charset), fromProfiles(profiles));
+    }
+
+    public static Source fromFile(File corpus, Charset charset) {
+        return () -> new NameSampleDataStream(new PlainTextByLineStream(new FileInputStream(corpus), charset));
+    }
+
+    public static Source fromProfiles(Collection<Profile> profiles) {
+        return () -> new NameSampleDataStream(new ProfileLineStream(profiles));
+    }
+
+    /**
+     * Converts the {@code <PER>/<ORG>/<LOCAL>/<MISC>} markup of a profile into {@code <START:...>} markup.
+     */
+    public static String toSampleMarkup(String data) {
+        String result = data;
+        for (int i = 0; i < PROFILE_TAGS.length; i++) {
+            result = result.replace(PROFILE_TAGS[i], SAMPLE_TAGS[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public NameSample read() throws IOException {
+        while (true) {
+            if (current == null) {
+                if (next >= sources.size()) {
+                    return null;
+                }
+                current = sources.get(next++).open();
+            }
+            NameSample sample = current.read();
+            if (sample != null) {
+                return sample;
+            }
+            current.close();
+            current = null;
+        }
+    }
+
+    @Override
+    public void reset() throws IOException {
+        close();
+        next = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    /**
+     * Emits every profile as its own document, separated the same way documents are in the HAREM file.
+     */
+    private static class ProfileLineStream implements ObjectStream<String> {
+        private final Collection<Profile> profiles;
+        private Iterator<Profile> iterator;
+        private final List<String> header = new ArrayList<>();
+        private BufferedReader lines;
+
+        ProfileLineStream(Collection<Profile> profiles) {
+            this.profiles = profiles;
+            this.iterator = profiles.iterator();
+        }
+
+        @Override
+        public String read() throws IOException {
+            while (true) {
+                if (!header.isEmpty()) {
+                    return header.remove(0);
+                }
+                if (lines != null) {
+                    String line = lines.readLine();
+                    if (line != null) {
+                        return line;
+                    }
+                    lines = null;
+                }
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                header.addAll(Arrays.asList("", DOCSTART, ""));
+                lines = new BufferedReader(new StringReader(toSampleMarkup(iterator.next().data)));
+            }
+        }
+
+        @Override
+        public void reset() {
+            iterator = profiles.iterator();
+            header.clear();
+            lines = null;
+        }
+
+        @Override
+        public void close() {
+            lines = null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class CompiledCorpusTest {
+
+    @Test
+    public void testCompiledSamplesMatchSource() throws IOException {
+        File harem = new File(getClass().getResource("/harem.xml").getFile());
+        File compiled = File.createTempFile("harem", ".corpus");
+        Files.delete(compiled.toPath());
+        try {
+            CompiledCorpus corpus = CompiledCorpus.load(harem, StandardCharsets.UTF_8, compiled);
+            assertSame(corpus, CompiledCorpus.load(harem, StandardCharsets.UTF_8, compiled));
+
+            ObjectStream<NameSample> expected = new NameSampleDataStream(new PlainTextByLineStream(new FileInputStream(harem), StandardCharsets.UTF_8));
+            ObjectStream<NameSample> actual = corpus.stream();
+            int count = 0;
+            NameSample sample;
+            while ((sample = expected.read()) != null) {
+                assertEquals(sample, actual.read());
+                count++;
+            }
+            assertNull(actual.read());
+            assertEquals(count, corpus.size());
+            expected.close();
+
+            actual.reset();
+            assertEquals(new NameSampleDataStream(new PlainTextByLineStream(new FileInputStream(harem), StandardCharsets.UTF_8)).read(), actual.read());
+        } finally {
+            Files.deleteIfExists(compiled.toPath());
+        }
+    }
+
+    @Test
+    public void testRebuiltForAnotherCharset() throws IOException {
+        File harem = new File(getClass().getResource("/harem.xml").getFile());
+        File compiled = File.createTempFile("harem", ".corpus");
+        Files.delete(compiled.toPath());
+        try {
+            CompiledCorpus utf8 = CompiledCorpus.load(harem, StandardCharsets.UTF_8, compiled);
+            CompiledCorpus latin1 = CompiledCorpus.load(harem, StandardCharsets.ISO_8859_1, compiled);
+            assertNotSame(utf8, latin1);
+
+            ObjectStream<NameSample> expected = new NameSampleDataStream(new PlainTextByLineStream(new FileInputStream(harem), StandardCharsets.ISO_8859_1));
+            ObjectStream<NameSample> actual = latin1.stream();
+            ObjectStream<NameSample> other = utf8.stream();
+            boolean differs = false;
+            NameSample sample;
+            while ((sample = expected.read()) != null) {
+                assertEquals(sample, actual.read());
+                differs |= !sample.equals(other.read());
+            }
+            expected.close();
+            assertTrue(differs);
+        } finally {
+            Files.deleteIfExists(compiled.toPath());
+        }
+    }
+
+    @Test
+    public void testSamplesCrossSegments() throws IOException {
+        File harem = new File(getClass().getResource("/harem.xml").getFile());
+        File compiled = File.createTempFile("harem", ".corpus");
+        try {
+            CompiledCorpus.compile(harem, StandardCharsets.UTF_8, compiled);
+            assertTrue(compiled.length() > 1 << 12);
+            CompiledCorpus corpus = CompiledCorpus.map(compiled, 12);
+
+            ObjectStream<NameSample> expected = new NameSampleDataStream(new PlainTextByLineStream(new FileInputStream(harem), StandardCharsets.UTF_8));
+            ObjectStream<NameSample> actual = corpus.stream();
+            NameSample sample;
+            while ((sample = expected.read()) != null) {
+                assertEquals(sample, actual.read());
+            }
+            assertNull(actual.read());
+            expected.close();
+            assertEquals(1, compiled.getParentFile().listFiles((dir, name) -> name.startsWith(compiled.getName())).length);
+        } finally {
+            Files.deleteIfExists(compiled.toPath());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package opennlp;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CurriculumDataTest {
+
+    private static final List<ProfileRecord> RECORDS = Arrays.asList(
+            new ProfileRecord("1", "Possui graduação\tem Matemática.\nAtualmente é professora.", "<MISC>Matemática</MISC>", 1),
+            new ProfileRecord("2", "Professor da UFSC \\ INE.", "<ORG>UFSC</ORG>", 2),
+            new ProfileRecord("3", "Sem anotação.", null, null));
+
+    @Test
+    public void testFileRoundTrip() throws IOException {
+        File file = File.createTempFile("lattes_ner", ".tsv");
+        try {
+            FileProfileSource.write(consumer -> RECORDS.forEach(consumer), file);
+            CurriculumData data = CurriculumData.load(new FileProfileSource(file), golden -> Collections.<NER>emptyList());
+            assertEquals(RECORDS.size(), data.getRecords().size());
+            for (int i = 0; i < RECORDS.size(); i++) {
+                ProfileRecord expected = RECORDS.get(i);
+                ProfileRecord actual = data.getRecords().get(i);
+                assertEquals(expected.id, actual.id);
+                assertEquals(expected.data, actual.data);
+                assertEquals(expected.golden, actual.golden);
+                assertEquals(expected.passo, actual.passo);
+            }
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+
+    @Test
+    public void testSplitByPasso() throws IOException {
+        AtomicInteger conversions = new AtomicInteger();
+        CurriculumData data = CurriculumData.load(consumer -> RECORDS.forEach(consumer), golden -> {
+            conversions.incrementAndGet();
+            return Collections.singletonList(new NER(golden, 0, 1, "ABSTRACCAO"));
+        });
+
+        CurriculumData.Split first = data.split(1);
+        assertEquals(Arrays.asList("1", "2", "3"), Arrays.asList(first.search.keySet().toArray()));
+        assertEquals(Arrays.asList("1", "2"), Arrays.asList(first.test.keySet().toArray()));
+        assertTrue(first.train.isEmpty());
+        assertSame(first.search.get("2"), first.test.get("2"));
+        assertEquals(1, first.test.get("2").goldenNERS.size());
+
+        CurriculumData.Split second = data.split(2);
+        assertEquals(Arrays.asList("2", "3"), Arrays.asList(second.search.keySet().toArray()));
+        assertEquals(Collections.singleton("1"), second.train.keySet());
+        assertNotSame(first.test.get("2"), second.test.get("2"));
+        assertEquals(2, conversions.get());
+    }
+}
@@ -0,0 +1,38 @@
+package opennlp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CurriculumSchedulerTest {
+
+    @Test
+    public void testRunsStepsConcurrentlyWithinBudget() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CurriculumScheduler scheduler = new CurriculumScheduler(4, 300, passo -> 100);
+
+        List<StepResult> results = scheduler.run(Arrays.asList(4, 3, 2, 1, 5, 6), passo -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            running.decrementAndGet();
+            if (passo == 5) {
+                throw new IllegalStateException("falhou");
+            }
+            return new StepResult(passo);
+        });
+
+        assertEquals(6, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i + 1, results.get(i).passo);
+        }
+        assertNotNull(results.get(4).failure);
+        assertNull(results.get(0).failure);
+        assertTrue(maxRunning.get() > 1);
+        assertTrue(maxRunning.get() <= 3);
+    }
+}
@@ -0,0 +1,50 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import opennlp.tools.util.Span;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CurriculumTrainerTest {
+
+    private static final Profile FIRST = new Profile("1", "<PER>Andreia Zanella</PER> é graduada em <MISC>Matemática</MISC> pela <ORG>Universidade de Passo Fundo</ORG> (2004).");
+    private static final Profile SECOND = new Profile("2", "Possui graduação em <MISC>Engenharia de Alimentos</MISC> pela <ORG>UPF</ORG> (2003) e Doutorado em <MISC>Engenharia Química</MISC> pela <ORG>Universidade Federal de Santa Catarina</ORG>.");
+
+    @Test
+    public void testIncrementalStepMatchesFullTraining() throws IOException {
+        List<String> lines = Files.readAllLines(new File(getClass().getResource("/harem.xml").getFile()).toPath(), StandardCharsets.UTF_8);
+        String baseText = String.join("\n", lines.subList(0, 600));
+        TrainingCorpusStream.Source base = () -> new NameSampleDataStream(new PlainTextByLineStream(new StringReader(baseText)));
+
+        CurriculumTrainer trainer = new CurriculumTrainer(base);
+        trainer.train(1, Collections.singletonList(FIRST));
+        TokenNameFinderModel incremental = trainer.train(2, Arrays.asList(FIRST, SECOND));
+
+        ObjectStream<NameSample> samples = new TrainingCorpusStream(base, TrainingCorpusStream.fromProfiles(Arrays.asList(FIRST, SECOND)));
+        TokenNameFinderModel full = NameFinderME.train("pt-br", "train", samples, Collections.<String, Object>emptyMap());
+
+        for (String line : lines.subList(600, 700)) {
+            String[] tokens = TokenizerService.get().tokenize(line.replaceAll("<START:[A-Z]+>|<END>", ""));
+            Span[] expected = new NameFinderME(full).find(tokens);
+            assertArrayEquals(expected, new NameFinderME(incremental).find(tokens));
+        }
+
+        assertEquals(2, trainer.getSteps().size());
+        assertEquals(1, trainer.getSteps().get(1).newProfiles);
+    }
+}
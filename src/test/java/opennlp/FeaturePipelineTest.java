@@ -0,0 +1,67 @@
+package opennlp;
+
+import opennlp.tools.util.featuregen.AdaptiveFeatureGenerator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FeaturePipelineTest {
+
+    private static final String[] TOKENS = {"Professor", "da", "Universidade", "Federal", "de", "Santa", "Catarina", "(", "UFSC", ")", "."};
+
+    @Test
+    public void testDefaultsMatchNameFinder() {
+        assertEquals(features(CurriculumTrainer.defaultFeatureGenerator()), features(FeaturePipeline.defaults().create()));
+        assertEquals(features(FeaturePipeline.defaults().create()), features(FeaturePipeline.defaults().profiled().create()));
+    }
+
+    @Test
+    public void testProfiledCounters() {
+        FeaturePipeline pipeline = FeaturePipeline.fixedWindow().profiled();
+        List<String> features = features(pipeline.create());
+
+        List<FeaturePipeline.Stats> stats = pipeline.getStats();
+        FeaturePipeline.Stats total = stats.get(stats.size() - 1);
+        assertEquals(FeaturePipeline.TOTAL, total.component);
+        assertEquals(TOKENS.length, total.getCalls());
+        assertEquals(features.size(), total.getFeatures());
+        long components = 0;
+        for (FeaturePipeline.Stats component : stats.subList(0, stats.size() - 1)) {
+            assertEquals(TOKENS.length, component.getCalls());
+            components += component.getFeatures();
+        }
+        assertEquals(features.size(), components);
+
+        pipeline.resetStats();
+        assertEquals(0, pipeline.getStats().get(0).getCalls());
+    }
+
+    @Test
+    public void testUniversities() {
+        List<String> features = features(FeaturePipeline.named("universities").create());
+        assertTrue(features.stream().anyMatch(feature -> feature.startsWith("univ")));
+        assertFalse(features(FeaturePipeline.defaults().create()).stream().anyMatch(feature -> feature.startsWith("univ")));
+    }
+
+    @Test
+    public void testUnknownPipeline() {
+        try {
+            FeaturePipeline.named("nenhum");
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static List<String> features(AdaptiveFeatureGenerator generator) {
+        List<String> features = new ArrayList<>();
+        String[] outcomes = new String[TOKENS.length];
+        for (int i = 0; i < TOKENS.length; i++) {
+            generator.createFeatures(features, TOKENS, i, outcomes);
+            outcomes[i] = "other";
+        }
+        return features;
+    }
+}
@@ -0,0 +1,64 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.PlainTextByLineStream;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GazetteerTest {
+
+    @Test
+    public void testLongestMatch() {
+        Gazetteer gazetteer = new Gazetteer()
+                .add(new String[] {"Universidade", "Federal"}, EntityTypes.ORGANIZACAO)
+                .add(new String[] {"Universidade", "Federal", "de", "Santa", "Catarina"}, EntityTypes.ORGANIZACAO)
+                .add(new String[] {"Santa", "Catarina"}, EntityTypes.LOCAL)
+                .add(new String[] {"UFSC"}, EntityTypes.ORGANIZACAO)
+                .add(new String[] {"Brasil"}, EntityTypes.LOCAL)
+                .add(new String[] {"Ciência", "da", "Computação"}, EntityTypes.ABSTRACCAO)
+                .add(new String[] {"Ciência", "da", "Computação"}, EntityTypes.ORGANIZACAO);
+        assertEquals(4, gazetteer.size());
+
+        String[] tokens = "Professor da Universidade Federal de Santa Catarina ( UFSC ) , no Brasil , em Ciência da Computação e Santa Catarina".split(" ");
+        List<NER> matches = gazetteer.match(tokens);
+        assertEquals(3, matches.size());
+        assertEquals("[2..7) ORGANIZACAO => Universidade Federal de Santa Catarina", matches.get(0).toString());
+        assertEquals("[8..9) ORGANIZACAO => UFSC", matches.get(1).toString());
+        assertEquals("[19..21) LOCAL => Santa Catarina", matches.get(2).toString());
+    }
+
+    @Test
+    public void testMatchesTakePrecedence() throws IOException {
+        List<String> lines = Files.readAllLines(new File(getClass().getResource("/harem.xml").getFile()).toPath(), StandardCharsets.UTF_8);
+        String trainText = String.join("\n", lines.subList(0, 400));
+        TokenNameFinderModel model = NameFinderME.train("pt-br", "train", new NameSampleDataStream(new PlainTextByLineStream(new StringReader(trainText))), Collections.<String, Object>emptyMap());
+        String text = "Atualmente é professor do Departamento de Informática e Estatística da Universidade Federal de Santa Catarina em Florianópolis .";
+        Gazetteer gazetteer = new Gazetteer()
+                .add(new String[] {"Departamento", "de", "Informática", "e", "Estatística"}, EntityTypes.ORGANIZACAO)
+                .add(new String[] {"Universidade", "Federal", "de", "Santa", "Catarina"}, EntityTypes.ORGANIZACAO);
+
+        Profile profile = new Profile("1", text);
+        NerInferenceEngine.tag(profile, new NameFinderME(model), TokenizerService.get(), gazetteer);
+
+        assertEquals(2, profile.gazetteerNERS.size());
+        assertTrue(profile.foundNERS.containsAll(profile.gazetteerNERS));
+        for (NER ner : profile.foundNERS) {
+            if (!profile.gazetteerNERS.contains(ner)) {
+                for (NER match : profile.gazetteerNERS) {
+                    assertTrue(ner.end <= match.start || ner.start >= match.end);
+                }
+            }
+        }
+    }
+}
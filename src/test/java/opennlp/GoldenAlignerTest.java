@@ -0,0 +1,37 @@
+package opennlp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class GoldenAlignerTest {
+
+    private static final String GOLDEN = "<PER>Antônio Augusto Fröhlich</PER> possui doutorado em <MISC>Engenharia da Computação</MISC> pela "
+            + "<ORG>Universidade Técnica de Berlim</ORG>, Mestrado em <MISC>Ciência da Computação</MISC> pela <ORG>Universidade Federal de Santa Catarina</ORG> "
+            + "(<ORG>UFSC</ORG>), em <LOC>Florianópolis</LOC>.";
+
+    @Test
+    public void testSpansMatchTokens() {
+        GoldenAligner.Alignment alignment = new GoldenAligner().align(GOLDEN);
+        assertTrue(alignment.unmatched.isEmpty());
+        assertEquals(7, alignment.entities.size());
+
+        String[] tokens = TokenizerService.get().tokenize(alignment.text);
+        for (NER ner : alignment.entities) {
+            assertEquals(ner.text, String.join(" ", Arrays.copyOfRange(tokens, ner.start, ner.end)));
+        }
+        assertEquals("PESSOA", alignment.entities.get(0).type);
+        assertEquals(0, (int) alignment.entities.get(0).start);
+        assertEquals("ORGANIZACAO", alignment.entities.get(2).type);
+        assertEquals("LOCAL", alignment.entities.get(6).type);
+    }
+
+    @Test
+    public void testUnmatchedEntityIsReported() {
+        GoldenAligner aligner = new GoldenAligner();
+        assertEquals(1, aligner.convert("Professor da <ORG>Uni</ORG>versidade e da <ORG>UFSC</ORG>.").size());
+        assertEquals(1, aligner.getUnmatched().size());
+    }
+}
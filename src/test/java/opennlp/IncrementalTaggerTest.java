@@ -0,0 +1,112 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.PlainTextByLineStream;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class IncrementalTaggerTest {
+
+    @Test
+    public void testTagsOnlyChangedProfiles() throws IOException {
+        List<String> lines = Files.readAllLines(new File(getClass().getResource("/harem.xml").getFile()).toPath(), StandardCharsets.UTF_8);
+        String trainText = String.join("\n", lines.subList(0, 400));
+        TokenNameFinderModel model = NameFinderME.train("pt-br", "train", new NameSampleDataStream(new PlainTextByLineStream(new StringReader(trainText))), Collections.<String, Object>emptyMap());
+        List<String> texts = new ArrayList<>();
+        for (String line : lines.subList(400, 440)) {
+            String text = line.replaceAll("<START:[A-Z]+>|<END>", "").trim();
+            if (!text.isEmpty()) {
+                texts.add(text);
+            }
+        }
+
+        File directory = Files.createTempDirectory("ner-entities").toFile();
+        try {
+            List<Profile> first = profiles(texts);
+            IncrementalTagger.Result result = new IncrementalTagger(new EntityStore(directory, 2, Long.MAX_VALUE), 2).tag(first, model, "v1");
+            assertEquals(texts.size(), result.tagged);
+
+            texts.set(3, texts.get(3) + " Universidade Federal de Santa Catarina .");
+            List<Profile> second = profiles(texts);
+            result = new IncrementalTagger(new EntityStore(directory, 2, Long.MAX_VALUE), 2).tag(second, model, "v1");
+            assertEquals(1, result.tagged);
+            assertEquals(texts.size() - 1, result.reused);
+
+            List<Profile> expected = profiles(texts);
+            NameFinderME finder = new NameFinderME(model);
+            for (int i = 0; i < expected.size(); i++) {
+                NerInferenceEngine.tag(expected.get(i), finder, TokenizerService.get());
+                assertEquals(expected.get(i).foundNERS, second.get(i).foundNERS);
+            }
+
+            result = new IncrementalTagger(new EntityStore(directory, 2, Long.MAX_VALUE), 2).tag(profiles(texts), model, "v2");
+            assertEquals(texts.size(), result.tagged);
+
+            new File(directory, "v1.tsv").setLastModified(System.currentTimeMillis() - 60000);
+            new IncrementalTagger(new EntityStore(directory, 2, Long.MAX_VALUE), 2).tag(profiles(texts), model, "v3");
+            assertFalse(new File(directory, "v1.tsv").exists());
+            assertTrue(new File(directory, "v2.tsv").exists());
+            assertTrue(new File(directory, "v3.tsv").exists());
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testStoreAppendsAndDropsTornRecord() throws IOException {
+        File directory = Files.createTempDirectory("ner-entities").toFile();
+        File file = new File(directory, "v1.tsv");
+        try {
+            EntityStore store = new EntityStore(directory, 2, Long.MAX_VALUE);
+            store.put("v1", "1", "a", Collections.singletonList(new NER("UPF", 0, 1, EntityTypes.ORGANIZACAO)));
+            store.put("v1", "2", "b", Collections.<NER>emptyList());
+            store.save("v1");
+            long length = file.length();
+            store.put("v1", "1", "c", Collections.singletonList(new NER("Passo Fundo", 2, 4, EntityTypes.LOCAL)));
+            store.save("v1");
+            assertEquals(length, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).subList(0, 3).stream().mapToInt(line -> line.length() + 1).sum());
+
+            Files.write(file.toPath(), "3\td\t2\n0\t1\tLOCAL\tRS\n1\t2\tLO".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            store = new EntityStore(directory, 2, Long.MAX_VALUE);
+            assertEquals(2, store.size("v1"));
+            assertEquals("c", store.get("v1", "1").hash);
+            assertEquals("Passo Fundo", store.get("v1", "1").entities.get(0).text);
+            assertNull(store.get("v1", "3"));
+
+            store.put("v1", "3", "e", Collections.<NER>emptyList());
+            store.save("v1");
+            store = new EntityStore(directory, 2, Long.MAX_VALUE);
+            assertEquals(3, store.size("v1"));
+            assertEquals(4, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+        } finally {
+            for (File f : directory.listFiles()) {
+                f.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    private static List<Profile> profiles(List<String> texts) {
+        List<Profile> profiles = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            profiles.add(new Profile(String.valueOf(i), texts.get(i)));
+        }
+        return profiles;
+    }
+}
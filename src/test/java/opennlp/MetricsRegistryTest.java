@@ -0,0 +1,99 @@
+package opennlp;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testStageMetrics() throws Exception {
+        StepResult result = new StepResult(1, TokenizerService.get()::getTokenCount);
+        String[] tokens = result.time("tag", () -> TokenizerService.get().tokenize("Professor da Universidade Federal de Santa Catarina."));
+        result.stage("tag").documents = 1;
+
+        StageMetrics tag = result.stage("tag");
+        assertEquals(tokens.length, tag.tokens);
+        assertTrue(tag.wallNanos > 0);
+        assertTrue(tag.peakHeapBytes > 0);
+        assertEquals(Long.valueOf(tag.wallNanos), result.stageNanos.get("tag"));
+    }
+
+    @Test
+    public void testPeakHeapSurvivesOverlappingStages() {
+        StageMetrics outer = StageMetrics.start("train");
+        long[] block = new long[4 << 20];
+        StageMetrics inner = StageMetrics.start("tag");
+        long peak = inner.stop().peakHeapBytes;
+        assertTrue(peak >= block.length * 8L);
+        assertTrue(outer.stop().peakHeapBytes >= peak);
+        assertEquals(0, outer.tokens);
+    }
+
+    @Test
+    public void testCountsAllocationOfExitedThreads() throws InterruptedException {
+        StageMetrics stage = StageMetrics.start("tag");
+        long[][] blocks = new long[1][];
+        Thread worker = new Thread(() -> {
+            blocks[0] = new long[4 << 20];
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        worker.start();
+        worker.join();
+        assertTrue(stage.stop().allocatedBytes >= blocks[0].length * 8L);
+    }
+
+    @Test
+    public void testRegistryAndJsonLines() throws IOException {
+        File file = File.createTempFile("metrics", ".jsonl");
+        try {
+            MetricsRegistry registry;
+            try (JsonLinesWriter writer = new JsonLinesWriter(file)) {
+                registry = new MetricsRegistry(writer);
+                assertSame(registry.counter("ner.profiles", "passo", "1", "tipo", "busca"), registry.counter("ner.profiles", "tipo", "busca", "passo", "1"));
+
+                for (int i = 0; i < 3; i++) {
+                    StageMetrics stage = StageMetrics.start("score");
+                    stage.documents = 2;
+                    registry.record(stage.stop(), "passo", String.valueOf(i), "model", "abc");
+                }
+                registry.publish();
+            }
+
+            MetricsRegistry.Timer timer = registry.timer("ner.stage", "stage", "score");
+            assertEquals(3, timer.count());
+            assertTrue(timer.maxWallNanos() <= timer.totalWallNanos());
+            assertEquals(6, registry.counter("ner.documents", "stage", "score").count());
+
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            assertEquals(3 + registry.getMeters().size(), lines.size());
+            assertTrue(lines.get(0).startsWith("{\"timestamp\":"));
+            assertTrue(lines.get(0).contains("\"type\":\"stage\",\"model\":\"abc\",\"passo\":\"0\",\"stage\":\"score\""));
+            assertTrue(lines.get(0).contains("\"documents\":2"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testJson() {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("texto", "linha \"1\"\n\ttab\\");
+        record.put("lista", Arrays.asList(1, 2.5, true, null));
+        record.put("nan", Double.NaN);
+        assertEquals("{\"texto\":\"linha \\\"1\\\"\\n\\ttab\\\\\",\"lista\":[1,2.5,true,null],\"nan\":null}", JsonLinesWriter.toJson(record));
+    }
+}
@@ -0,0 +1,107 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.PlainTextByLineStream;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ModelCacheTest {
+
+    @Test
+    public void testFingerprint() throws IOException {
+        File harem = new File(getClass().getResource("/harem.xml").getFile());
+        Profile first = new Profile("1", "Professor da <ORG>UFSC</ORG>.");
+        Profile second = new Profile("2", "Doutor pela <ORG>USP</ORG>.");
+
+        String fingerprint = new ModelFingerprint().corpus(harem).profiles(Arrays.asList(first, second)).build();
+        assertEquals(fingerprint, new ModelFingerprint().corpus(harem).profiles(Arrays.asList(second, first)).build());
+        assertNotEquals(fingerprint, new ModelFingerprint().corpus(harem).profiles(Collections.singletonList(first)).build());
+        assertNotEquals(fingerprint, new ModelFingerprint().corpus(harem).profiles(Arrays.asList(first, new Profile("2", "Doutor pela USP."))).build());
+
+        String golden = new ModelFingerprint().golden(Arrays.asList(first, second)).build();
+        first.goldenNERS.add(new NER("UFSC", 3, 4, EntityTypes.ORGANIZACAO));
+        assertNotEquals(golden, new ModelFingerprint().golden(Arrays.asList(second, first)).build());
+    }
+
+    @Test
+    public void testGetOrTrainAndEviction() throws IOException {
+        File directory = Files.createTempDirectory("ner-models").toFile();
+        try {
+            ModelCache cache = new ModelCache(directory, 2, Long.MAX_VALUE);
+            AtomicInteger trainings = new AtomicInteger();
+            ModelCache.Trainer trainer = () -> {
+                trainings.incrementAndGet();
+                return train();
+            };
+
+            TokenNameFinderModel trained = cache.getOrTrain("a", trainer);
+            TokenNameFinderModel cached = cache.getOrTrain("a", trainer);
+            assertEquals(1, trainings.get());
+            assertNotSame(trained, cached);
+            assertEquals(1, cache.getHits());
+
+            cache.getOrTrain("b", trainer);
+            new File(directory, "a.bin").setLastModified(System.currentTimeMillis() - 60000);
+            cache.getOrTrain("c", trainer);
+            assertEquals(3, trainings.get());
+            assertFalse(new File(directory, "a.bin").exists());
+            assertTrue(new File(directory, "b.bin").exists());
+            assertTrue(new File(directory, "c.bin").exists());
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testCorruptModelIsRetrained() throws IOException {
+        File directory = Files.createTempDirectory("ner-models").toFile();
+        try {
+            ModelCache cache = new ModelCache(directory, 2, Long.MAX_VALUE);
+            AtomicInteger trainings = new AtomicInteger();
+            ModelCache.Trainer trainer = () -> {
+                trainings.incrementAndGet();
+                return train();
+            };
+            cache.getOrTrain("a", trainer);
+
+            File file = new File(directory, "a.bin");
+            byte[] model = Files.readAllBytes(file.toPath());
+            Files.write(file.toPath(), Arrays.copyOf(model, model.length / 2));
+            assertNull(cache.get("a"));
+            assertFalse(file.exists());
+
+            Files.write(file.toPath(), "not a model".getBytes(StandardCharsets.UTF_8));
+            assertNotNull(cache.getOrTrain("a", trainer));
+            assertEquals(2, trainings.get());
+            assertEquals(2, cache.getMisses());
+            assertNotNull(cache.get("a"));
+        } finally {
+            for (File file : directory.listFiles()) {
+                file.delete();
+            }
+            directory.delete();
+        }
+    }
+
+    private TokenNameFinderModel train() throws IOException {
+        List<String> lines = Files.readAllLines(new File(getClass().getResource("/harem.xml").getFile()).toPath(), StandardCharsets.UTF_8);
+        String text = String.join("\n", lines.subList(0, 200));
+        return NameFinderME.train("pt-br", "train", new NameSampleDataStream(new PlainTextByLineStream(new StringReader(text))), Collections.<String, Object>emptyMap());
+    }
+}
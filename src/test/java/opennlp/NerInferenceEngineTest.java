@@ -0,0 +1,56 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class NerInferenceEngineTest {
+
+    @Test
+    public void testParallelMatchesSequential() throws IOException {
+        List<String> lines = Files.readAllLines(new File(getClass().getResource("/harem.xml").getFile()).toPath(), StandardCharsets.UTF_8);
+        String trainText = String.join("\n", lines.subList(0, 600));
+        ObjectStream<String> lineStream = new PlainTextByLineStream(new StringReader(trainText));
+        TokenNameFinderModel model = NameFinderME.train("pt-br", "train", new NameSampleDataStream(lineStream), Collections.<String, Object>emptyMap());
+
+        List<Profile> sequential = new ArrayList<>();
+        List<Profile> parallel = new ArrayList<>();
+        for (String line : lines.subList(600, 800)) {
+            String text = line.replaceAll("<START:[A-Z]+>|<END>", "").trim();
+            if (!text.isEmpty()) {
+                sequential.add(new Profile(String.valueOf(sequential.size()), text));
+                parallel.add(new Profile(String.valueOf(parallel.size()), text));
+            }
+        }
+
+        NameFinderME finder = new NameFinderME(model);
+        for (Profile profile : sequential) {
+            NerInferenceEngine.tag(profile, finder, TokenizerService.get());
+        }
+        try (NerInferenceEngine engine = new NerInferenceEngine(model, 4, 3)) {
+            engine.identify(parallel);
+        }
+
+        int found = 0;
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).foundNERS, parallel.get(i).foundNERS);
+            found += parallel.get(i).foundNERS.size();
+        }
+        assertFalse(found == 0);
+    }
+}
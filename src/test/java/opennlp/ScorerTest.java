@@ -0,0 +1,68 @@
+package opennlp;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ScorerTest {
+
+    @Test
+    public void testKeyRoundTrip() {
+        long key = EntitySet.key(123456, 123460, EntityTypes.id(EntityTypes.LOCAL));
+        assertEquals(123456, EntitySet.start(key));
+        assertEquals(123460, EntitySet.end(key));
+        assertEquals(EntityTypes.LOCAL, EntityTypes.name(EntitySet.type(key)));
+    }
+
+    @Test
+    public void testPerTypeScores() {
+        Profile profile = new Profile("1", "");
+        profile.goldenNERS.addAll(Arrays.asList(
+                new NER("Andreia Zanella", 0, 2, EntityTypes.PESSOA),
+                new NER("Matemática", 5, 6, EntityTypes.ABSTRACCAO),
+                new NER("UPF", 8, 9, EntityTypes.ORGANIZACAO)));
+        profile.foundNERS.addAll(Arrays.asList(
+                new NER("Andreia Zanella", 0, 2, EntityTypes.PESSOA),
+                new NER("Matemática", 5, 6, EntityTypes.LOCAL),
+                new NER("UPF", 8, 9, EntityTypes.ORGANIZACAO),
+                new NER("2004", 10, 11, "TEMPO")));
+
+        Scorer scorer = new Scorer();
+        scorer.score(profile, profile);
+
+        Scorer.TypeScore total = scorer.total();
+        assertEquals(2, total.truePositives);
+        assertEquals(2, total.falsePositives);
+        assertEquals(1, total.falseNegatives);
+        assertEquals(0.5, total.precision(), 1e-9);
+        assertEquals(2 / 3d, total.recall(), 1e-9);
+
+        assertEquals(1.0, scorer.score(EntityTypes.PESSOA).f1(), 1e-9);
+        assertEquals(0, scorer.score(EntityTypes.ABSTRACCAO).recall(), 1e-9);
+        assertEquals(1, scorer.score(EntityTypes.LOCAL).falsePositives);
+        assertEquals(5, scorer.byType().size());
+    }
+
+    @Test
+    public void testSameSpanWithTwoTypes() {
+        NerSet entities = new NerSet();
+        entities.add(new NER("Unicamp", 3, 4, EntityTypes.LOCAL));
+        entities.add(new NER("Unicamp", 3, 4, EntityTypes.ORGANIZACAO));
+        entities.add(new NER("USP", 1, 2, EntityTypes.ORGANIZACAO));
+        assertFalse(entities.add(new NER("USP", 1, 2, EntityTypes.ORGANIZACAO)));
+        assertEquals(3, entities.size());
+        assertTrue(entities.contains(new NER("Unicamp", 3, 4, EntityTypes.LOCAL)));
+        assertFalse(entities.contains(new NER("Unicamp", 3, 4, EntityTypes.PESSOA)));
+        assertEquals("[1..2) ORGANIZACAO => USP", entities.iterator().next().toString());
+
+        Profile profile = new Profile("1", "");
+        profile.goldenNERS.addAll(entities);
+        profile.foundNERS.add(new NER("Unicamp", 3, 4, EntityTypes.ORGANIZACAO));
+        Scorer scorer = new Scorer();
+        scorer.score(profile, profile);
+        assertEquals(1, scorer.total().truePositives);
+        assertEquals(2, scorer.total().falseNegatives);
+    }
+}
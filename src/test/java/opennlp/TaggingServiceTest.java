@@ -0,0 +1,149 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameFinderME;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.namefind.TokenNameFinderModel;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TaggingServiceTest {
+
+    private static TokenNameFinderModel model;
+
+    private static synchronized TokenNameFinderModel model() throws IOException {
+        if (model == null) {
+            List<String> lines = Files.readAllLines(new File(TaggingServiceTest.class.getResource("/harem.xml").getFile()).toPath(), StandardCharsets.UTF_8);
+            ObjectStream<String> lineStream = new PlainTextByLineStream(new StringReader(String.join("\n", lines.subList(0, 600))));
+            model = NameFinderME.train("pt-br", "train", new NameSampleDataStream(lineStream), Collections.<String, Object>emptyMap());
+        }
+        return model;
+    }
+
+    @Test
+    public void testTagOverHttp() throws Exception {
+        String text = "Pedro Álvares Cabral chegou ao Brasil com a armada de Portugal em 1500 .";
+        Profile expected = new Profile(null, text);
+        NerInferenceEngine.tag(expected, new NameFinderME(model()), TokenizerService.get());
+
+        try (TaggingService service = new TaggingService(model(), 2, 4, 2, 64)) {
+            service.start(0);
+            List<String> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(post(service.getPort(), text));
+            }
+            for (String response : responses) {
+                assertEquals(expected.foundNERS.size(), response.isEmpty() ? 0 : response.split("\n").length);
+                for (NER ner : expected.foundNERS) {
+                    assertTrue(response.contains(ner.toString()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentClientsShareBatches() throws Exception {
+        String text = "O Instituto de Física da Universidade de São Paulo .";
+        int clients = 16;
+        try (TaggingService service = new TaggingService(model(), 2, 8, 50, 64)) {
+            service.start(0);
+            ExecutorService executor = Executors.newFixedThreadPool(clients);
+            try {
+                CountDownLatch ready = new CountDownLatch(clients);
+                List<Future<String>> responses = new ArrayList<>();
+                for (int i = 0; i < clients; i++) {
+                    responses.add(executor.submit(() -> {
+                        ready.countDown();
+                        ready.await();
+                        return post(service.getPort(), text);
+                    }));
+                }
+                String first = responses.get(0).get();
+                for (Future<String> response : responses) {
+                    assertEquals(first, response.get());
+                }
+            } finally {
+                executor.shutdown();
+            }
+            assertEquals(clients, service.getRequestCount());
+            assertTrue(service.getBatchCount() < service.getRequestCount());
+        }
+    }
+
+    @Test
+    public void testTimesOutAndCompletesOnClose() throws Exception {
+        List<CompletableFuture<List<NER>>> pending = new ArrayList<>();
+        try (TaggingService service = new TaggingService(model(), FeaturePipeline.defaults(), 1, 8, 1000, 64, 50)) {
+            service.start(0);
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + service.getPort() + "/tag").openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write("Universidade de São Paulo .".getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals(504, connection.getResponseCode());
+
+            for (int i = 0; i < 3; i++) {
+                pending.add(service.tag("Universidade de São Paulo ."));
+            }
+        }
+        for (CompletableFuture<List<NER>> future : pending) {
+            assertTrue(future.isDone());
+        }
+    }
+
+    @Test
+    public void testRejectsWhenQueueIsFull() throws Exception {
+        try (TaggingService service = new TaggingService(model(), 1, 1, 0, 1)) {
+            List<CompletableFuture<List<NER>>> accepted = new ArrayList<>();
+            int rejected = 0;
+            for (int i = 0; i < 200; i++) {
+                try {
+                    accepted.add(service.tag("O Instituto de Física da Universidade de São Paulo ."));
+                } catch (RejectedExecutionException e) {
+                    rejected++;
+                }
+            }
+            for (CompletableFuture<List<NER>> future : accepted) {
+                future.get();
+            }
+            assertTrue(rejected > 0);
+            assertEquals(200, accepted.size() + rejected);
+        }
+    }
+
+    private static String post(int port, String text) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/tag").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
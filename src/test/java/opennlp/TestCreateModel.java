@@ -6,8 +6,6 @@ package opennlp;
 import opennlp.tools.namefind.NameFinderME;
 import opennlp.tools.namefind.NameSampleDataStream;
 import opennlp.tools.namefind.TokenNameFinderModel;
-import opennlp.tools.tokenize.TokenizerME;
-import opennlp.tools.tokenize.TokenizerModel;
 import opennlp.tools.util.ObjectStream;
 import opennlp.tools.util.PlainTextByLineStream;
 import opennlp.tools.util.Span;
@@ -18,288 +16,139 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.StringReader;
 import java.nio.charset.Charset;
-import java.sql.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class TestCreateModel {
 
-    class Profile {
-        String id;
-        String data;
-        Set<NER> foundNERS = new HashSet<>();
-        Set<NER> goldenNERS = new HashSet<>();
+    private final GoldenAligner aligner = new GoldenAligner();
+    private CurriculumData data;
+    private CurriculumTrainer trainer;
+    private CurriculumScheduler scheduler;
+    private final ModelCache modelCache = ModelCache.fromSystemProperties();
+    private final EntityStore entityStore = EntityStore.fromSystemProperties();
+    private final MetricsRegistry metrics = MetricsRegistry.fromSystemProperties();
+    private File harem;
+    private CompiledCorpus corpus;
+    private String dataVersion;
 
-        public Profile(String id, String data) {
-            this.id = id;
-            this.data = data;
-        }
-
-        public String toString() {
-            String prof = "Researcher: %s \n Golden NER: \n %s";
-            return String.format(prof, this.id, StringUtils.join(this.goldenNERS, "\n"));
-        }
-    }
-
-    class NER {
-        String text;
-        String type;
-        Integer start;
-        Integer end;
-
-        public String toString() {
-            return String.format("[%d..%d) %s => %s", start, end, type, text);
-        }
-
-        public NER(String text, Integer start, Integer end, String type) {
-            this.text = text;
-            this.start = start;
-            this.end = end;
-            this.type = type;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            NER ner = (NER) o;
-            return Objects.equals(text, ner.text) &&
-                    Objects.equals(start, ner.start) &&
-                    Objects.equals(end, ner.end);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(text, start, end);
+    public void identifyNERs(Collection<Profile> data, NameFinderME model) throws IOException {
+        for (Profile profile : data) {
+            NerInferenceEngine.tag(profile, model, TokenizerService.get());
         }
     }
 
 
-    public Map<String, TestCreateModel.Profile> loadData(int passo) throws ClassNotFoundException {
-        Class.forName("org.postgresql.Driver");
-        Map<String, TestCreateModel.Profile> result = new HashMap<>();
-        try (
-
-                Connection connection = DriverManager.getConnection("jdbc:postgresql://10.0.1.220:5432/ner", "ner", "ner")) {
-            Statement statement = connection.createStatement();
-            ResultSet resultSet = statement.executeQuery("SELECT lattes_id, pt FROM lattes_ner where passo is null or passo >= " + passo);
 
-            while (resultSet.next()) {
-                result.put(resultSet.getString(1), new Profile(resultSet.getString(1), resultSet.getString(2)));
-            }
-
-            resultSet.close();
-            return result;
+    @Test
+    public void testNERs() throws IOException, InterruptedException {
+//        List<Profile> profiles = loadTrainData(2);
+//        profiles.stream().forEach(prof -> System.out.println(prof));
 
-        } /*catch (ClassNotFoundException e) {
-            System.out.println("PostgreSQL JDBC driver not found.");
-            e.printStackTrace();
-        }*/ catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        StageMetrics load = StageMetrics.start("load");
+        loadData();
+        load.documents = data.getRecords().size();
+        metrics.record(load.stop(), "data", dataVersion);
+
+        StageMetrics golden = StageMetrics.start("golden", TokenizerService.get()::getTokenCount);
+        golden.documents = data.convertGolden();
+        metrics.record(golden.stop(), "data", dataVersion);
+
+        StageMetrics build = StageMetrics.start("corpus");
+        corpus = CompiledCorpus.load(harem, StandardCharsets.UTF_8);
+        build.documents = corpus.size();
+        metrics.record(build.stop(), "data", dataVersion);
+        trainer = new CurriculumTrainer(corpus.asSource());
+
+        scheduler = CurriculumScheduler.fromSystemProperties();
+        List<StepResult> results = scheduler.run(Arrays.asList(1, 2, 3, 4), this::runStep);
+
+        results.forEach(System.out::println);
+        trainer.getSteps().forEach(System.out::println);
+        aligner.getUnmatched().forEach(ner -> System.out.println("NE dourada não alinhada: " + ner));
+        System.out.println(TokenizerService.get());
+        System.out.println(modelCache);
+        System.out.println(metrics);
+        metrics.publish();
     }
 
-    public Map<String, TestCreateModel.Profile> loadTrainData(int passo) throws ClassNotFoundException {
-        Class.forName("org.postgresql.Driver");
-        Map<String, TestCreateModel.Profile> result = new HashMap<>();
-        try (
-
-                Connection connection = DriverManager.getConnection("jdbc:postgresql://10.0.1.220:5432/ner", "ner", "ner")) {
-            Statement statement = connection.createStatement();
-            ResultSet resultSet = statement.executeQuery("SELECT lattes_id, pt, ner_pt_manual FROM lattes_ner where passo < " + passo);
-
-            while (resultSet.next()) {
-//                System.out.println("Loading training " + resultSet.getString(1));
-                Profile p = new Profile(resultSet.getString(1), resultSet.getString(2));
-                p.goldenNERS.addAll(convertGolden(resultSet.getString(3)));
-                result.put(resultSet.getString(1), p);
-
-//                System.out.println(p);
-            }
-
-
-
-            resultSet.close();
-            return result;
-
-        } /*catch (ClassNotFoundException e) {
-            System.out.println("PostgreSQL JDBC driver not found.");
-            e.printStackTrace();
-        }*/ catch (SQLException | IOException e) {
-            throw new RuntimeException(e);
-        }
+    @Test
+    public void testFeaturePipelines() throws IOException {
+        loadData();
+        FeatureReport report = new FeatureReport(CompiledCorpus.load(harem, StandardCharsets.UTF_8).asSource(), data);
+        int passo = Integer.getInteger("ner.features.passo", 2);
+        System.out.println("Passo " + passo + ":");
+        report.run(FeaturePipeline.all(), passo).forEach(System.out::println);
     }
 
-
-    public Map<String, TestCreateModel.Profile> loadTestData(int passo) throws ClassNotFoundException {
-        Class.forName("org.postgresql.Driver");
-        Map<String, TestCreateModel.Profile> result = new HashMap<>();
-        try (
-
-                Connection connection = DriverManager.getConnection("jdbc:postgresql://10.0.1.220:5432/ner", "ner", "ner")) {
-            Statement statement = connection.createStatement();
-            ResultSet resultSet = statement.executeQuery("SELECT lattes_id, pt, ner_pt_manual FROM lattes_ner where passo >= " + passo);
-
-            while (resultSet.next()) {
-//                System.out.println("Loading testing " + resultSet.getString(1));
-                Profile p = new Profile(resultSet.getString(1), resultSet.getString(2));
-                p.goldenNERS.addAll(convertGolden(resultSet.getString(3)));
-                result.put(resultSet.getString(1), p);
-
-//                System.out.println(p);
-            }
-
-
-
-            resultSet.close();
-            return result;
-
-        } /*catch (ClassNotFoundException e) {
-            System.out.println("PostgreSQL JDBC driver not found.");
-            e.printStackTrace();
-        }*/ catch (SQLException | IOException e) {
-            throw new RuntimeException(e);
+    private void loadData() throws IOException {
+        String profiles = System.getProperty("ner.profiles");
+        ProfileSource source = profiles == null ? JdbcProfileSource.fromSystemProperties() : new FileProfileSource(new File(profiles));
+        data = CurriculumData.load(source, aligner);
+        harem = new File(this.getClass().getResource("/harem.xml").getFile());
+        ModelFingerprint fingerprint = new ModelFingerprint();
+        for (ProfileRecord record : data.getRecords()) {
+            fingerprint.add(record.id, record.data).add("golden", record.golden).add("passo", String.valueOf(record.passo));
         }
+        dataVersion = fingerprint.build();
     }
 
-    private List<NER> convertGolden(String data) throws IOException {
-        Pattern p = Pattern.compile("(<)([^>]+)(>)([^<]+)(</[A-Z]+>)");
-        Matcher m = p.matcher(data);
-        List<NER> result = new LinkedList<>();
-        while (m.find()) {
-            String type = m.group(1);
-            if (type.equals("LOC")) {
-                type =  "LOCAL";
-            } else if (type.equals("PER")) {
-                type =  "PESSOA";
-            } else if (type.equals("ORG")) {
-                type =  "ORGANIZACAO";
-            } else {
-                type =  "ABSTRACCAO";
+    private StepResult runStep(int passo) throws Exception {
+        StepResult result = new StepResult(passo, TokenizerService.get()::getTokenCount);
+        CurriculumData.Split split = result.time("split", () -> data.split(passo));
+        result.stage("split").documents = data.getRecords().size();
+        result.searchProfiles = split.search.size();
+        result.testProfiles = split.test.size();
+        result.trainProfiles = split.train.size();
+
+        findNERS(result, split.search, split.train);
+        result.scorer = result.time("score", () -> calculatePrecision(split.search, split.test));
+        result.stage("score").documents = split.test.size();
+        if (Boolean.getBoolean("ner.gazetteer")) {
+            result.gazetteer = new Scorer();
+            for (String id : split.test.keySet()) {
+                result.gazetteer.score(split.search.get(id).gazetteerNERS, split.test.get(id).goldenNERS);
             }
-            String value = m.group(4);
-            NER ner = new NER(value, 0, 0, type);
-            result.add(ner);
         }
-
-        Pattern pSub = Pattern.compile("<[^>]+>");
-        Matcher mSub = pSub.matcher(data);
-        data = mSub.replaceAll("");
-
-        data = StringUtils.replaceAll(data, ",", ", ");
-        String[] dataTokens = tokenize(data);
-
-        int posInicial = 0;
-        for (NER ner : result) {
-//            System.out.println("Finding NER: " + ner);
-            String[] nerData = tokenize(ner.text);
-            while ( ! Arrays.equals(ArrayUtils.subarray(dataTokens, posInicial, posInicial + nerData.length),nerData)) {
-                posInicial++;
-            }
-
-            ner.start = posInicial;
-            ner.end = posInicial + nerData.length;
-            posInicial = posInicial + nerData.length;
+        for (StageMetrics stage : result.stages) {
+            metrics.record(stage, "passo", String.valueOf(passo), "model", result.model, "data", dataVersion);
         }
-
         return result;
     }
 
-    public void identifyNERs(Collection<Profile> data, NameFinderME model) throws IOException {
-        for (Profile profile : data) {
-            String[] tokens = tokenize(profile.data);
-            Span[] ners = model.find(tokens);
-            for (Span ner : ners) {
-                profile.foundNERS.add(new NER(StringUtils.join(ArrayUtils.subarray(tokens, ner.getStart(), ner.getEnd()), " "), ner.getStart(), ner.getEnd(), ner.getType()));
-            }
-        }
-    }
-
-
-
-    @Test
-    public void testNERs() throws ClassNotFoundException, IOException {
-//        List<Profile> profiles = loadTrainData(2);
-//        profiles.stream().forEach(prof -> System.out.println(prof));
-
-        runStep(1);
-        runStep(2);
-        runStep(3);
-        runStep(4);
-
-    }
-
-    private void runStep(int passo) throws ClassNotFoundException, IOException {
-        Map<String, Profile> searchData = loadData(passo);
-        Map<String, Profile> testData = loadTestData(passo);
-        Map<String, Profile> trainData = loadTrainData(passo);
-
-        findNERS(searchData, trainData);
-        calculatePrecision(searchData, testData, passo);
-    }
-
-    private void calculatePrecision(Map<String, Profile> searchData, Map<String, Profile> testData, int passo) {
-
-        int totalFound = 0;
-        int totalMissing = 0;
-        int totalWrong = 0;
+    private Scorer calculatePrecision(Map<String, Profile> searchData, Map<String, Profile> testData) {
 
+        Scorer scorer = new Scorer();
 
         for (String id : testData.keySet()) {
-            Profile pFound = searchData.get(id);
-            Profile pGolden = testData.get(id);
-
-//            System.out.println("Comparing " + id);
-
-            int found = 0;
-            int missing = 0;
-            int wrong = 0;
-
-            for (NER ner : pFound.foundNERS) {
-                if (pGolden.goldenNERS.contains(ner)) {
-                    found++;
-                } else {
-                    wrong++;
-                }
-            }
-
-            for (NER ner : pGolden.goldenNERS) {
-                if (! pFound.foundNERS.contains(ner)) {
-                    missing++;
-                }
-            }
-
-            totalFound += found;
-            totalMissing += missing;
-            totalWrong += wrong;
-
-//            System.out.println(String.format("O pesquisador %s teve no ciclo %d Found=%d\tMissing=%d\tWrong=%d", id, passo, found, missing, wrong));
+            scorer.score(searchData.get(id), testData.get(id));
         }
 
-        System.out.println(String.format("O passo %d houveram %d falsas, %d existentes, %d faltantes e %d NEs no total", passo, totalWrong, totalFound, totalMissing, totalFound + totalMissing));
+        return scorer;
     }
 
-    private void findNERS(Map<String, Profile> searchData, Map<String, Profile> trainData) throws IOException {
+    private void findNERS(StepResult result, Map<String, Profile> searchData, Map<String, Profile> trainData) throws Exception {
 
-        String trainText = FileUtils.readFileToString(new File(this.getClass().getResource("/harem.xml").getFile()), Charset.defaultCharset());
+        String fingerprint = new ModelFingerprint().corpus(harem).add("charset", corpus.getCharset()).profiles(trainData.values()).parameters(trainer.describe()).build();
+        TokenNameFinderModel model = result.time("train", () -> modelCache.getOrTrain(fingerprint, () -> trainer.train(result.passo, trainData.values())));
+        result.stage("train").documents = trainData.size();
+        result.model = fingerprint;
 
-        for (Profile p : trainData.values()) {
-            String textData = StringUtils.replaceEachRepeatedly(p.data, new String[] {"<PER>", "<LOCAL>", "<ORG>", "<MISC>", "</PER>", "</LOCAL>", "</ORG>", "</MISC>"},
-                    new String[] {" <START:PESSOA> ", " <START:LOCAL> ", " <START:ORGANIZACAO> ", " <START:ABSTRACCAO> ", " <END> ", " <END> ", " <END> ", " <END> "});
-            trainText += "\n--DOCSTART--\n\n" + textData;
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / scheduler.getParallelism());
+        Gazetteer gazetteer = null;
+        String version = fingerprint;
+        if (Boolean.getBoolean("ner.gazetteer")) {
+            gazetteer = result.time("gazetteer", () -> new Gazetteer().addSamples(corpus.stream()).addProfiles(trainData.values(), TokenizerService.get()));
+            result.stage("gazetteer").documents = trainData.size();
+            version = new ModelFingerprint().add("model", fingerprint).add("gazetteer", "golden").golden(trainData.values()).build();
         }
-
-        ObjectStream fileStream = new PlainTextByLineStream(new StringReader(trainText));
-        ObjectStream sampleStream = new NameSampleDataStream(fileStream);
-        TokenNameFinderModel model = NameFinderME.train("pt-br", "train", sampleStream, Collections.<String, Object>emptyMap());
-
-        NameFinderME nfm = new NameFinderME(model);
-
-        identifyNERs(searchData.values(), nfm);
+        IncrementalTagger tagger = new IncrementalTagger(entityStore, parallelism, trainer.getPipeline(), gazetteer);
+        String taggingVersion = version;
+        IncrementalTagger.Result tagged = result.time("tag", () -> tagger.tag(searchData.values(), model, taggingVersion));
+        result.taggedProfiles = tagged.tagged;
+        result.stage("tag").documents = tagged.tagged;
 
 //        for (String id : searchData.keySet()) {
 //            Profile p = searchData.get(id);
@@ -410,9 +259,6 @@ public class TestCreateModel {
     }
 
     public String[] tokenize(String sentence) throws IOException{
-        InputStream inputStreamTokenizer = getClass().getResourceAsStream("/pt-token.bin");
-        TokenizerModel tokenModel = new TokenizerModel(inputStreamTokenizer);
-        TokenizerME tokenizer = new TokenizerME(tokenModel);
-        return tokenizer.tokenize(sentence);
+        return TokenizerService.get().tokenize(sentence);
     }
 }
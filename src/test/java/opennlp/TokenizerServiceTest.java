@@ -0,0 +1,49 @@
+package opennlp;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class TokenizerServiceTest {
+
+    private static final String SENTENCE = "Possui graduação em Ciência da Computação pela Universidade Federal de Santa Catarina (1989).";
+
+    @Test
+    public void testModelLoadedOnce() {
+        assertSame(TokenizerService.get(), TokenizerService.get(TokenizerService.DEFAULT_MODEL));
+    }
+
+    @Test
+    public void testBatchMatchesSingle() {
+        TokenizerService tokenizer = TokenizerService.get();
+        List<String[]> batch = tokenizer.tokenize(Arrays.asList(SENTENCE, "Atualmente é professor da UFSC."));
+        assertEquals(2, batch.size());
+        assertArrayEquals(tokenizer.tokenize(SENTENCE), batch.get(0));
+    }
+
+    @Test
+    public void testConcurrentTokenize() throws Exception {
+        TokenizerService tokenizer = TokenizerService.get();
+        String[] expected = tokenizer.tokenize(SENTENCE);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String[]>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(() -> tokenizer.tokenize(SENTENCE)));
+            }
+            for (Future<String[]> result : results) {
+                assertArrayEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(tokenizer.getTokenCount() >= expected.length * 65L);
+    }
+}
@@ -0,0 +1,63 @@
+package opennlp;
+
+import opennlp.tools.namefind.NameSample;
+import opennlp.tools.namefind.NameSampleDataStream;
+import opennlp.tools.util.ObjectStream;
+import opennlp.tools.util.PlainTextByLineStream;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TrainingCorpusStreamTest {
+
+    private static final String PROFILE = "<PER>Andreia Zanella</PER> é graduada em <MISC>Matemática</MISC> pela <ORG>Universidade de Passo Fundo</ORG> (2004).\n"
+            + "Atualmente é professora no <ORG>Departamento de Informática e Estatística</ORG>.";
+
+    @Test
+    public void testSameSamplesAsConcatenatedText() throws IOException {
+        File harem = new File(getClass().getResource("/harem.xml").getFile());
+        List<Profile> profiles = Arrays.asList(new Profile("1", PROFILE), new Profile("2", PROFILE));
+
+        String trainText = new String(Files.readAllBytes(harem.toPath()), StandardCharsets.UTF_8);
+        for (Profile p : profiles) {
+            trainText += "\n--DOCSTART--\n\n" + TrainingCorpusStream.toSampleMarkup(p.data);
+        }
+        List<NameSample> expected = readAll(new NameSampleDataStream(new PlainTextByLineStream(new StringReader(trainText))));
+
+        ObjectStream<NameSample> stream = TrainingCorpusStream.of(harem, StandardCharsets.UTF_8, profiles);
+        List<NameSample> actual = readAll(stream);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i).getSentence(), actual.get(i).getSentence());
+            assertArrayEquals(expected.get(i).getNames(), actual.get(i).getNames());
+        }
+
+        stream.reset();
+        assertEquals(actual.size(), readAll(stream).size());
+        stream.close();
+    }
+
+    @Test
+    public void testProfileMarkup() {
+        assertEquals(" <START:PESSOA> Andreia <END>  em  <START:ORGANIZACAO> UPF <END> ",
+                TrainingCorpusStream.toSampleMarkup("<PER>Andreia</PER> em <ORG>UPF</ORG>"));
+    }
+
+    private static List<NameSample> readAll(ObjectStream<NameSample> stream) throws IOException {
+        List<NameSample> result = new ArrayList<>();
+        NameSample sample;
+        while ((sample = stream.read()) != null) {
+            result.add(sample);
+        }
+        return result;
+    }
+}